@@ -0,0 +1,62 @@
+package com.docutrack.bench;
+
+import com.docutrack.service.AnalyticsService;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The analytics reductions run as MongoDB aggregations; the timeline merge of the grouped rows
+// is the only per-row work left in the JVM, so that is what is measured here.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsTimelineBenchmark {
+    
+    private static final String[] STATUSES = {"auto_extracted", "manual_required", "manually_edited"};
+    
+    // A month of daily buckets and five years of daily buckets
+    @Param({"30", "1825"})
+    public int buckets;
+    
+    private List<Document> rows;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        rows = new ArrayList<>();
+        for (int day = 0; day < buckets; day++) {
+            String bucket = start.plusDays(day).toString();
+            for (String status : STATUSES) {
+                rows.add(new Document("_id", new Document("bucket", bucket).append("extractionStatus", status))
+                    .append("uploads", 1 + random.nextInt(50))
+                    .append("bytes", (long) random.nextInt(50_000_000)));
+            }
+        }
+    }
+    
+    @Benchmark
+    public List<Map<String, Object>> mergeTimeline() {
+        return AnalyticsService.mergeTimeline(rows);
+    }
+}
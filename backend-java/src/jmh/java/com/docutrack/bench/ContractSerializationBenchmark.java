@@ -0,0 +1,71 @@
+package com.docutrack.bench;
+
+import com.docutrack.config.ExtractionProperties;
+import com.docutrack.model.Contract;
+import com.docutrack.service.VariableExtractor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Rendering a contract listing the way GET /api/contracts does
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContractSerializationBenchmark {
+    
+    @Param({"20", "500"})
+    public int contracts;
+    
+    private ObjectMapper objectMapper;
+    private List<Contract> listing;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same modules and features as the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        VariableExtractor extractor = new VariableExtractor(new ExtractionProperties());
+        listing = new ArrayList<>();
+        for (int i = 0; i < contracts; i++) {
+            String text = SyntheticContracts.text(SyntheticContracts.Size.MEDIUM, i);
+            Contract contract = new Contract();
+            contract.setId(UUID.randomUUID().toString());
+            contract.setFilename(contract.getId() + "_contract-" + i + ".docx");
+            contract.setOriginalFilename("contract-" + i + ".docx");
+            contract.setFilePath("uploads/blobs/00/00/" + contract.getId());
+            contract.setFileSize((long) text.length());
+            contract.setUploadDate(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(i));
+            contract.setUserId("bench-user");
+            contract.setExtractionStatus("auto_extracted");
+            contract.setVariables(extractor.extract(text));
+            contract.setExtractedText(text.substring(0, Math.min(5000, text.length())));
+            listing.add(contract);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeListing() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listing);
+    }
+}
@@ -0,0 +1,57 @@
+package com.docutrack.bench;
+
+import com.docutrack.service.DocxTextExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Parsing a stored upload into plain text, the first stage of ingestion and reprocessing
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocxTextExtractorBenchmark {
+    
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public SyntheticContracts.Size size;
+    
+    private DocxTextExtractor extractor;
+    private Path file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        extractor = new DocxTextExtractor();
+        ReflectionTestUtils.setField(extractor, "maxTextChars", 2_000_000);
+        
+        file = Files.createTempFile("bench-", ".docx");
+        Files.write(file, SyntheticContracts.docx(size, 42));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public String extract() throws IOException {
+        return extractor.extract(file);
+    }
+}
@@ -0,0 +1,171 @@
+package com.docutrack.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Deterministic synthetic contracts: plain text for the extractor and minimal WordprocessingML
+// packages for the DOCX parser. Run main to write a corpus directory of .docx files.
+public final class SyntheticContracts {
+
+    public enum Size {
+        // Roughly one page, a typical agreement and a very large exhibit-heavy contract
+        SMALL(2_000), MEDIUM(60_000), LARGE(2_000_000);
+
+        public final int chars;
+
+        Size(int chars) {
+            this.chars = chars;
+        }
+    }
+
+    private static final String[] TITLES = {
+        "SERVICE AGREEMENT", "EMPLOYMENT AGREEMENT", "LEASE AGREEMENT", "NON-DISCLOSURE AGREEMENT", "MASTER AGREEMENT"
+    };
+    private static final String[] COMPANIES = {
+        "Acme Corporation", "Globex Inc", "Initech Solutions", "Umbrella Holdings", "Stark Industries",
+        "Wayne Enterprises", "Hooli Inc", "Vandelay Industries", "Soylent Corp", "Tyrell Systems"
+    };
+    private static final String[] PEOPLE = {
+        "Jane Smith", "John Doe", "Maria Garcia", "Wei Chen", "Amara Okafor", "Lars Nilsson"
+    };
+    private static final String[] MONTHS = {
+        "January", "February", "March", "April", "May", "June",
+        "July", "August", "September", "October", "November", "December"
+    };
+    private static final String[] CLAUSES = {
+        "The Provider shall perform the services described in the statement of work with reasonable skill and care.",
+        "Either party may terminate this agreement upon thirty days written notice to the other party.",
+        "Each party shall keep confidential all information disclosed by the other party in connection with this agreement.",
+        "Invoices are payable within forty-five days of receipt and late payments accrue interest at the statutory rate.",
+        "Neither party shall be liable for any indirect, incidental or consequential damages arising under this agreement.",
+        "This agreement shall be governed by and construed in accordance with the laws of the State of Delaware.",
+        "The Client grants the Provider a non-exclusive licence to use its trademarks solely to perform the services.",
+        "Any dispute arising out of this agreement shall first be referred to the executive sponsors of both parties.",
+        "No amendment to this agreement is effective unless it is in writing and signed by both parties.",
+        "The Provider shall maintain insurance coverage appropriate to the services for the term of this agreement."
+    };
+
+    private SyntheticContracts() {
+    }
+
+    // Paragraphs of roughly the requested total length; the same seed yields the same contract
+    public static List<String> paragraphs(int targetChars, long seed) {
+        Random random = new Random(seed);
+        List<String> paragraphs = new ArrayList<>();
+        String first = pick(random, COMPANIES);
+        String second = pick(random, COMPANIES);
+
+        paragraphs.add(pick(random, TITLES));
+        paragraphs.add("This agreement is made on " + date(random) + " between " + first + " and " + second
+            + ", together the parties.");
+        int length = paragraphs.get(0).length() + paragraphs.get(1).length();
+
+        int section = 1;
+        while (length < targetChars) {
+            StringBuilder paragraph = new StringBuilder();
+            paragraph.append(section++).append(". ");
+            int sentences = 2 + random.nextInt(4);
+            for (int i = 0; i < sentences; i++) {
+                paragraph.append(pick(random, CLAUSES)).append(' ');
+            }
+            if (random.nextInt(4) == 0) {
+                paragraph.append("The fee for this phase is $").append(String.format("%,d", 1_000 + random.nextInt(900_000)))
+                    .append(".00 payable by ").append(date(random)).append('.');
+            }
+            paragraphs.add(paragraph.toString().trim());
+            length += paragraph.length();
+        }
+
+        paragraphs.add("Signature: " + pick(random, PEOPLE));
+        paragraphs.add("Signature: " + pick(random, PEOPLE));
+        return paragraphs;
+    }
+
+    public static String text(Size size, long seed) {
+        return String.join("\n", paragraphs(size.chars, seed));
+    }
+
+    public static byte[] docx(Size size, long seed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDocx(paragraphs(size.chars, seed), out);
+        return out.toByteArray();
+    }
+
+    public static void writeDocx(List<String> paragraphs, OutputStream out) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            putEntry(zip, "[Content_Types].xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/word/document.xml\" "
+                + "ContentType=\"application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/>"
+                + "</Types>");
+            putEntry(zip, "_rels/.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" "
+                + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+                + "Target=\"word/document.xml\"/>"
+                + "</Relationships>");
+
+            StringBuilder document = new StringBuilder(paragraphs.size() * 200);
+            document.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>");
+            for (String paragraph : paragraphs) {
+                document.append("<w:p>");
+                // Word splits paragraphs into several runs, so do the same at sentence boundaries
+                for (String run : paragraph.split("(?<=\\. )")) {
+                    document.append("<w:r><w:rPr><w:sz w:val=\"22\"/></w:rPr><w:t xml:space=\"preserve\">")
+                        .append(escape(run)).append("</w:t></w:r>");
+                }
+                document.append("</w:p>");
+            }
+            document.append("</w:body></w:document>");
+            putEntry(zip, "word/document.xml", document.toString());
+        }
+    }
+
+    // Usage: SyntheticContracts <dir> <count> [small|medium|large]
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "target/synthetic-corpus");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Size size = args.length > 2 ? Size.valueOf(args[2].toUpperCase()) : Size.MEDIUM;
+
+        Files.createDirectories(dir);
+        for (int i = 0; i < count; i++) {
+            try (OutputStream out = Files.newOutputStream(dir.resolve(String.format("contract-%05d.docx", i)))) {
+                writeDocx(paragraphs(size.chars, i), out);
+            }
+        }
+        System.out.println("Wrote " + count + " " + size.name().toLowerCase() + " contracts to " + dir.toAbsolutePath());
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String date(Random random) {
+        return pick(random, MONTHS) + " " + (1 + random.nextInt(28)) + ", " + (2018 + random.nextInt(8));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,46 @@
+package com.docutrack.bench;
+
+import com.docutrack.config.ExtractionProperties;
+import com.docutrack.model.ContractVariables;
+import com.docutrack.service.VariableExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Keyword classification and field extraction over parsed text (extractVariablesWithAI)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariableExtractorBenchmark {
+    
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public SyntheticContracts.Size size;
+    
+    private VariableExtractor extractor;
+    private String text;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        extractor = new VariableExtractor(new ExtractionProperties());
+        text = SyntheticContracts.text(size, 42);
+    }
+    
+    @Benchmark
+    public ContractVariables extract() {
+        return extractor.extract(text);
+    }
+}
@@ -0,0 +1,67 @@
+package com.docutrack.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Latencies and status counts of one endpoint during the measured phase. Every sample is kept,
+// so percentiles are exact; a long run at a few thousand requests per second is a few MB.
+final class EndpointStats {
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private int rejected;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    // 429 means the server shed the request on purpose, so it is not counted as an error
+    synchronized void record(long nanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (status == 429) {
+            rejected++;
+        } else if (status < 200 || status >= 400) {
+            errors++;
+        }
+    }
+
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("rejected", rejected);
+        summary.put("throughput_per_sec", round(count / seconds));
+        summary.put("p50_ms", millis(percentile(sorted, 0.50)));
+        summary.put("p99_ms", millis(percentile(sorted, 0.99)));
+        summary.put("max_ms", millis(count > 0 ? sorted[count - 1] : 0));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
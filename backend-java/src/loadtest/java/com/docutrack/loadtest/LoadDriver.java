@@ -0,0 +1,173 @@
+package com.docutrack.loadtest;
+
+import com.docutrack.bench.SyntheticContracts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Issues the request mix against the real controllers over HTTP. Each virtual user picks an
+// operation by weight, so the endpoints see concurrent, interleaved traffic as in production.
+final class LoadDriver {
+
+    // Operation weights out of 100: mostly reads, with a steady trickle of uploads and reprocesses
+    static final Map<String, Integer> MIX = new LinkedHashMap<>();
+
+    static {
+        MIX.put("list", 25);
+        MIX.put("search", 20);
+        MIX.put("analytics", 15);
+        MIX.put("download", 15);
+        MIX.put("get", 10);
+        MIX.put("upload", 10);
+        MIX.put("reprocess", 5);
+    }
+
+    private static final String[] SEARCH_TERMS = {
+        "agreement", "acme", "globex", "confidential", "delaware", "invoices", "insurance", "termin", "stark", "service"
+    };
+    private static final String BOUNDARY = "----docutrack-loadtest";
+
+    private final String baseUrl;
+    private final List<String> users;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, List<String>> contractIds = new ConcurrentHashMap<>();
+    private final AtomicLong uploadSeed = new AtomicLong(1_000_000);
+
+    LoadDriver(String baseUrl, List<String> users) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        users.forEach(user -> contractIds.put(user, new CopyOnWriteArrayList<>()));
+    }
+
+    // Uploads the starting corpus in batches and waits until every file is processed
+    void seed(int contracts, int batchSize) throws IOException, InterruptedException {
+        for (int start = 0; start < contracts; start += batchSize) {
+            String user = users.get((start / batchSize) % users.size());
+            List<byte[]> files = new ArrayList<>();
+            for (int i = start; i < Math.min(start + batchSize, contracts); i++) {
+                // One very large contract in fifty, as in the benchmark corpus
+                SyntheticContracts.Size size = i % 50 == 49 ? SyntheticContracts.Size.LARGE
+                    : i % 5 == 4 ? SyntheticContracts.Size.MEDIUM : SyntheticContracts.Size.SMALL;
+                files.add(SyntheticContracts.docx(size, i));
+            }
+            HttpResponse<String> response = send(uploadRequest(user, files));
+            if (response.statusCode() != 202) {
+                throw new IOException("Seed upload failed with status " + response.statusCode());
+            }
+            awaitJob(user, objectMapper.readTree(response.body()).get("id").asText());
+        }
+    }
+
+    // Runs one operation, picked by weight unless only is set, and records it under its name
+    void runOnce(String only, Map<String, EndpointStats> stats) throws IOException, InterruptedException {
+        String operation = only != null ? only : pickOperation();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String user = users.get(random.nextInt(users.size()));
+        String contractId = randomContract(user);
+
+        HttpRequest request;
+        switch (operation) {
+            case "list" -> request = get("/api/contracts/page?limit=50&userId=" + user);
+            case "search" -> request = get("/api/contracts?userId=" + user + "&search="
+                + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8));
+            case "analytics" -> request = get(random.nextBoolean()
+                ? "/api/analytics/summary?userId=" + user : "/api/analytics/timeline?userId=" + user);
+            case "download" -> request = get("/api/contracts/" + contractId + "/download");
+            case "get" -> request = get("/api/contracts/" + contractId);
+            case "reprocess" -> request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/contracts/" + contractId + "/reprocess"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case "upload" -> {
+                SyntheticContracts.Size size = random.nextInt(5) == 0 ? SyntheticContracts.Size.MEDIUM : SyntheticContracts.Size.SMALL;
+                // Fresh content every time, so uploads are not served from the blob or extraction caches
+                request = uploadRequest(user, List.of(SyntheticContracts.docx(size, uploadSeed.incrementAndGet())));
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        }
+        stats.get(operation).record(System.nanoTime() - start, status);
+    }
+
+    private String pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Operation weights must add up to 100");
+    }
+
+    private String randomContract(String user) {
+        List<String> ids = contractIds.get(user);
+        return ids.isEmpty() ? "missing" : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private void awaitJob(String user, String jobId) throws IOException, InterruptedException {
+        while (true) {
+            JsonNode job = objectMapper.readTree(send(get("/api/contracts/upload/jobs/" + jobId + "?userId=" + user)).body());
+            if (job.path("finished").asBoolean()) {
+                for (JsonNode file : job.path("files")) {
+                    if (file.hasNonNull("contractId")) {
+                        contractIds.get(user).add(file.get("contractId").asText());
+                    }
+                }
+                return;
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest uploadRequest(String user, List<byte[]> files) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int index = 0;
+        for (byte[] file : files) {
+            body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"loadtest-"
+                + uploadSeed.get() + "-" + index++ + ".docx\"\r\n"
+                + "Content-Type: application/vnd.openxmlformats-officedocument.wordprocessingml.document\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+            body.write(file);
+            body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"userId\"\r\n\r\n" + user + "\r\n--"
+            + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/contracts/upload"))
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,204 @@
+package com.docutrack.loadtest;
+
+import com.docutrack.DocuTrackApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end load test on one machine. Starts the application against an in-memory MongoDB
+// (mongo-java-server speaks the wire protocol, so every MongoTemplate query and aggregation runs
+// unchanged), seeds a synthetic corpus, drives the request mix and reports latency, throughput,
+// heap and GC figures. mongo-java-server ignores secondary indexes, so every query is a full
+// scan: the figures compare builds, they are not capacity numbers.
+//
+// Usage: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="threads=32 duration=120"
+// Arguments (key=value): threads, duration and warmup in seconds, corpus (seed contracts),
+// users, only (run a single endpoint, so heap and GC figures belong to it), out (JSON report).
+public final class LoadTestMain {
+
+    static final String DATABASE_CAVEAT = "In-memory MongoDB without secondary indexes: every query is a full scan. "
+        + "Compare builds on the same machine; do not use these figures for capacity planning.";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        int corpus = Integer.parseInt(options.getOrDefault("corpus", "500"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "4"));
+        String only = options.get("only");
+        File out = new File(options.getOrDefault("out", "target/loadtest-result.json"));
+        if (only != null && !LoadDriver.MIX.containsKey(only)) {
+            throw new IllegalArgumentException("Unknown operation " + only + ", expected one of " + LoadDriver.MIX.keySet());
+        }
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        String mongoUri = "mongodb://" + mongoAddress.getHostString() + ":" + mongoAddress.getPort() + "/docutrack_loadtest";
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(DocuTrackApplication.class).run(
+            "--server.port=0",
+            "--spring.data.mongodb.uri=" + mongoUri,
+            "--spring.data.mongodb.database=docutrack_loadtest",
+            "--docutrack.storage.blob-dir=target/loadtest/blobs",
+            "--logging.level.com.docutrack=WARN",
+            "--logging.level.de.bwaldvogel=WARN");
+        String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add("loadtest-" + i);
+        }
+        LoadDriver driver = new LoadDriver(baseUrl, users);
+
+        try {
+            long seedStart = System.nanoTime();
+            driver.seed(corpus, 10);
+            System.out.printf("Seeded %d contracts in %.1f s%n", corpus, (System.nanoTime() - seedStart) / 1e9);
+
+            drive(driver, only, threads, warmup, newStats());
+            System.gc();
+
+            Map<String, EndpointStats> stats = newStats();
+            GcSnapshot before = new GcSnapshot();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+            long start = System.nanoTime();
+            drive(driver, only, threads, duration, stats);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            GcSnapshot after = new GcSnapshot();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("threads", threads);
+            report.put("duration_sec", Math.round(seconds * 10) / 10.0);
+            report.put("corpus", corpus);
+            report.put("mix", only != null ? Map.of(only, 100) : LoadDriver.MIX);
+            report.put("caveat", DATABASE_CAVEAT);
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            long total = 0;
+            for (EndpointStats endpoint : stats.values()) {
+                Map<String, Object> summary = endpoint.summary(seconds);
+                if ((Integer) summary.get("requests") > 0) {
+                    endpoints.put(endpoint.name(), summary);
+                    total += (Integer) summary.get("requests");
+                }
+            }
+            report.put("endpoints", endpoints);
+            report.put("throughput_per_sec", Math.round(total / seconds * 100) / 100.0);
+            report.put("jvm", jvmReport(before, after, seconds));
+
+            print(report);
+            out.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+            System.out.println("Report written to " + out.getPath());
+        } finally {
+            app.close();
+            mongo.shutdownNow();
+        }
+    }
+
+    private static void drive(LoadDriver driver, String only, int threads, int seconds, Map<String, EndpointStats> stats)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        driver.runOnce(only, stats);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // Failed requests are recorded by the driver; keep the load steady
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private static Map<String, EndpointStats> newStats() {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        LoadDriver.MIX.keySet().forEach(name -> stats.put(name, new EndpointStats(name)));
+        return stats;
+    }
+
+    // Heap and GC over the measured phase. Driver and server share the JVM, so the figures include
+    // the driver's own (small) allocation
+    private static Map<String, Object> jvmReport(GcSnapshot before, GcSnapshot after, double seconds) {
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        long gcMillis = after.millis - before.millis;
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("heap_max_mb", Runtime.getRuntime().maxMemory() >> 20);
+        jvm.put("heap_peak_mb", peakHeap >> 20);
+        jvm.put("heap_used_after_mb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+        jvm.put("gc_collections", after.count - before.count);
+        jvm.put("gc_time_ms", gcMillis);
+        jvm.put("gc_time_percent", Math.round(gcMillis / (seconds * 1000) * 10000) / 100.0);
+        jvm.put("collectors", ManagementFactory.getGarbageCollectorMXBeans().stream().map(GarbageCollectorMXBean::getName).toList());
+        return jvm;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.printf("%n%-10s %9s %7s %8s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "rejected", "req/s", "p50 ms", "p99 ms", "max ms");
+        ((Map<String, Map<String, Object>>) report.get("endpoints")).forEach((name, s) ->
+            System.out.printf("%-10s %9s %7s %8s %9s %9s %9s %9s%n", name, s.get("requests"), s.get("errors"),
+                s.get("rejected"), s.get("throughput_per_sec"), s.get("p50_ms"), s.get("p99_ms"), s.get("max_ms")));
+        System.out.printf("%nTotal %s req/s over %s s; JVM %s%n",
+            report.get("throughput_per_sec"), report.get("duration_sec"), report.get("jvm"));
+        System.out.printf("%nNote: %s%n", report.get("caveat"));
+    }
+
+    private static final class GcSnapshot {
+        final long count;
+        final long millis;
+
+        GcSnapshot() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            this.count = count;
+            this.millis = millis;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.docutrack;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DocuTrackApplication {
     public static void main(String[] args) {
         SpringApplication.run(DocuTrackApplication.class, args);
@@ -0,0 +1,86 @@
+package com.docutrack.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "docutrack.extraction")
+public class ExtractionProperties {
+    // Earlier entries win when a document matches keywords of several types
+    private List<ContractTypeRule> contractTypes = new ArrayList<>(List.of(
+        new ContractTypeRule("Service Agreement", List.of("service agreement", "services agreement", "consulting agreement")),
+        new ContractTypeRule("Employment Contract", List.of("employment agreement", "employment contract", "job offer")),
+        new ContractTypeRule("Lease Agreement", List.of("lease agreement", "rental agreement", "tenancy agreement")),
+        new ContractTypeRule("Non-Disclosure Agreement", List.of("non-disclosure", "nda", "confidentiality agreement"))
+    ));
+
+    private FieldRule party = new FieldRule(
+        "between\\s+([A-Z][a-zA-Z\\s&.,Inc]+?)\\s+(?:and|&)\\s+([A-Z][a-zA-Z\\s&.,Inc]+?)(?:\\s|,|\\.|$)", true);
+    private FieldRule amount = new FieldRule(
+        "[\\$£€¥]\\s*[\\d,]+(?:\\.\\d{2})?", false);
+    private FieldRule date = new FieldRule(
+        "\\b\\d{1,2}[/-]\\d{1,2}[/-]\\d{4}\\b|\\b(?:January|February|March|April|May|June|July|August|September|October|November|December)\\s+\\d{1,2},?\\s+\\d{4}\\b", true);
+    private FieldRule signature = new FieldRule(
+        "Signature:\\s*([A-Z][a-zA-Z\\s]+?)(?:\\n|$)", true);
+
+    // How numeric dates such as 05/03/2024 are read: MDY or DMY
+    private String numericDateOrder = "MDY";
+
+    public static class ContractTypeRule {
+        private String name;
+        private List<String> keywords = new ArrayList<>();
+
+        public ContractTypeRule() {}
+
+        public ContractTypeRule(String name, List<String> keywords) {
+            this.name = name;
+            this.keywords = new ArrayList<>(keywords);
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getKeywords() { return keywords; }
+        public void setKeywords(List<String> keywords) { this.keywords = keywords; }
+    }
+
+    public static class FieldRule {
+        private String pattern;
+        private boolean caseInsensitive;
+
+        public FieldRule() {}
+
+        public FieldRule(String pattern, boolean caseInsensitive) {
+            this.pattern = pattern;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public boolean isCaseInsensitive() { return caseInsensitive; }
+        public void setCaseInsensitive(boolean caseInsensitive) { this.caseInsensitive = caseInsensitive; }
+    }
+
+    // Getters and Setters
+    public List<ContractTypeRule> getContractTypes() { return contractTypes; }
+    public void setContractTypes(List<ContractTypeRule> contractTypes) { this.contractTypes = contractTypes; }
+
+    public FieldRule getParty() { return party; }
+    public void setParty(FieldRule party) { this.party = party; }
+
+    public FieldRule getAmount() { return amount; }
+    public void setAmount(FieldRule amount) { this.amount = amount; }
+
+    public FieldRule getDate() { return date; }
+    public void setDate(FieldRule date) { this.date = date; }
+
+    public FieldRule getSignature() { return signature; }
+    public void setSignature(FieldRule signature) { this.signature = signature; }
+
+    public String getNumericDateOrder() { return numericDateOrder; }
+    public void setNumericDateOrder(String numericDateOrder) { this.numericDateOrder = numericDateOrder; }
+}
@@ -0,0 +1,81 @@
+package com.docutrack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IngestionConfig {
+    
+    @Value("${docutrack.ingestion.worker-threads:0}")
+    private int workerThreads;
+    
+    @Value("${docutrack.ingestion.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    @Value("${docutrack.reprocess.job-threads:2}")
+    private int reprocessJobThreads;
+    
+    @Value("${docutrack.reprocess.max-concurrency:0}")
+    private int reprocessMaxConcurrency;
+    
+    @Value("${docutrack.maintenance.threads:1}")
+    private int maintenanceThreads;
+    
+    @Bean(name = "ingestionExecutor")
+    public ThreadPoolTaskExecutor ingestionExecutor() {
+        // 0 means one worker per available core
+        int threads = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ingest-");
+        // A full queue rejects the task (AbortPolicy) rather than running the pipeline on the request
+        // thread; IngestionService turns that into a 429 like the other admission limits
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+    
+    // Coordinator threads for bulk reprocess jobs; their contracts run on reprocessWorkerExecutor
+    @Bean(name = "reprocessJobExecutor")
+    public ThreadPoolTaskExecutor reprocessJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reprocessJobThreads);
+        executor.setMaxPoolSize(reprocessJobThreads);
+        executor.setThreadNamePrefix("reprocess-job-");
+        executor.initialize();
+        return executor;
+    }
+    
+    // Re-extracts the contracts of reprocess jobs. Every job keeps at most its concurrency in flight,
+    // so the pool has room for each coordinator thread at the maximum concurrency.
+    @Bean(name = "reprocessWorkerExecutor")
+    public ThreadPoolTaskExecutor reprocessWorkerExecutor() {
+        // 0 means one worker per available core
+        int perJob = reprocessMaxConcurrency > 0 ? reprocessMaxConcurrency : Runtime.getRuntime().availableProcessors();
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(perJob * reprocessJobThreads);
+        executor.setMaxPoolSize(perJob * reprocessJobThreads);
+        executor.setThreadNamePrefix("reprocess-worker-");
+        executor.initialize();
+        return executor;
+    }
+    
+    // Startup backfills and migrations; kept off the ingest workers so uploads are not queued
+    // behind a full-collection pass
+    @Bean(name = "maintenanceExecutor")
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maintenanceThreads);
+        executor.setMaxPoolSize(maintenanceThreads);
+        executor.setThreadNamePrefix("maintenance-");
+        executor.initialize();
+        return executor;
+    }
+}
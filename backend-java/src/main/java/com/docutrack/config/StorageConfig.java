@@ -0,0 +1,24 @@
+package com.docutrack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class StorageConfig {
+    
+    @Value("${docutrack.storage.transfer-threads:8}")
+    private int transferThreads;
+    
+    // Parallel chunk reads and writes of the GridFS blob storage, shared by all transfers
+    @Bean(name = "blobTransferExecutor")
+    public ThreadPoolTaskExecutor blobTransferExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(transferThreads);
+        executor.setMaxPoolSize(transferThreads);
+        executor.setThreadNamePrefix("blob-transfer-");
+        executor.initialize();
+        return executor;
+    }
+}
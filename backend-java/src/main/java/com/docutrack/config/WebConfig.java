@@ -0,0 +1,29 @@
+package com.docutrack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class WebConfig {
+    
+    @Value("${docutrack.export.threads:4}")
+    private int exportThreads;
+    
+    @Value("${docutrack.export.queue-capacity:50}")
+    private int exportQueueCapacity;
+    
+    // Writes exports, so long downloads do not hold request threads. Only the export endpoint
+    // uses it; other async requests keep Spring's defaults.
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportThreads);
+        executor.setMaxPoolSize(exportThreads);
+        executor.setQueueCapacity(exportQueueCapacity);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+        return executor;
+    }
+}
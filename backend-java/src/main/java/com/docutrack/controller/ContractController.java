@@ -1,64 +1,167 @@
 package com.docutrack.controller;
 
 import com.docutrack.model.Contract;
+import com.docutrack.model.ContractPage;
+import com.docutrack.model.IngestionJob;
+import com.docutrack.repository.ContractFilter;
+import com.docutrack.service.AdmissionRejectedException;
+import com.docutrack.service.BlobStorage;
+import com.docutrack.service.BlobStore;
+import com.docutrack.service.ContractExportService;
+import com.docutrack.service.ContractQueryService;
 import com.docutrack.service.ContractService;
+import com.docutrack.service.IngestionService;
+import com.docutrack.service.SimilarityService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/contracts")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.RETRY_AFTER)
 public class ContractController {
     
     @Autowired
     private ContractService contractService;
     
+    @Autowired
+    private IngestionService ingestionService;
+    
+    @Autowired
+    private ContractQueryService contractQueryService;
+    
+    @Autowired
+    private ContractExportService contractExportService;
+    
+    @Autowired
+    private SimilarityService similarityService;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    @Qualifier("exportExecutor")
+    private AsyncTaskExecutor exportExecutor;
+    
+    // Large exports stream for minutes
+    @Value("${docutrack.export.timeout:30m}")
+    private Duration exportTimeout;
+    
     @GetMapping
     public ResponseEntity<List<Contract>> getAllContracts(
-            @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "default") String userId,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String contractType,
-            @RequestParam(required = false) String extractionStatus) {
+            @RequestParam(required = false) String extractionStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedTo,
+            @RequestParam(required = false) String party) {
         
-        List<Contract> contracts = contractService.getAllContracts(userId, search, contractType, extractionStatus);
+        ContractFilter filter = new ContractFilter(userId, search, contractType, extractionStatus, uploadedFrom, uploadedTo, party);
+        List<Contract> contracts = contractService.getAllContracts(filter);
         return ResponseEntity.ok(contracts);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<ContractPage> getContractPage(
+            @RequestParam(defaultValue = "default") String userId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String contractType,
+            @RequestParam(required = false) String extractionStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedTo,
+            @RequestParam(required = false) String party,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        ContractFilter filter = new ContractFilter(userId, search, contractType, extractionStatus, uploadedFrom, uploadedTo, party);
+        try {
+            return ResponseEntity.ok(contractQueryService.listContracts(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportContracts(
+            @RequestParam(defaultValue = "default") String userId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String contractType,
+            @RequestParam(required = false) String extractionStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate uploadedTo,
+            @RequestParam(required = false) String party,
+            @RequestParam(defaultValue = ContractExportService.NDJSON) String format,
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) throws IOException {
+        
+        List<String> columns;
+        try {
+            columns = contractExportService.resolveFields(fields);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        if (!ContractExportService.formats().contains(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        
+        ContractFilter filter = new ContractFilter(userId, search, contractType, extractionStatus, uploadedFrom, uploadedTo, party);
+        String mediaType = ContractExportService.CSV.equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson";
+        response.setContentType(mediaType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contracts-" + LocalDate.now() + "." + format + "\"");
+        // Written on the export executor once this method returns, straight from the Mongo cursor.
+        // The executor and timeout apply to this endpoint only.
+        return new WebAsyncTask<>(exportTimeout.toMillis(), exportExecutor, () -> {
+            contractExportService.export(filter, format, columns, response.getOutputStream());
+            return null;
+        });
+    }
+    
     @PostMapping("/upload")
-    public ResponseEntity<List<Contract>> uploadContracts(
+    public ResponseEntity<IngestionJob> uploadContracts(
             @RequestParam("files") MultipartFile[] files,
             @RequestParam(defaultValue = "default") String userId) {
         
-        List<Contract> uploadedContracts = new ArrayList<>();
-        
-        for (MultipartFile file : files) {
-            try {
-                Contract contract = contractService.uploadContract(file, userId);
-                uploadedContracts.add(contract);
-            } catch (IOException e) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(null);
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(null);
-            }
+        IngestionJob job;
+        try {
+            job = ingestionService.submit(files, userId);
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
         }
-        
-        return ResponseEntity.ok(uploadedContracts);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, "/api/contracts/upload/jobs/" + job.getId() + "?userId=" + UriUtils.encodeQueryParam(userId, StandardCharsets.UTF_8))
+            .body(job);
+    }
+    
+    @GetMapping("/upload/jobs/{jobId}")
+    public ResponseEntity<IngestionJob> getUploadJob(@PathVariable String jobId,
+                                                     @RequestParam(defaultValue = "default") String userId) {
+        return ingestionService.getJob(jobId, userId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/{contractId}")
@@ -68,6 +171,32 @@ public class ContractController {
                       .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping(value = "/{contractId}/text", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> getContractText(@PathVariable String contractId) {
+        try {
+            return contractService.getExtractedText(contractId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/{contractId}/similar")
+    public ResponseEntity<List<Map<String, Object>>> getSimilarContracts(
+            @PathVariable String contractId,
+            @RequestParam(defaultValue = "default") String userId,
+            @RequestParam(defaultValue = "0.5") double minSimilarity,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (minSimilarity < SimilarityService.MIN_SIMILARITY || minSimilarity > 1 || limit < 1 || limit > 100) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return similarityService.findSimilar(contractId, userId, minSimilarity, limit)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
     @DeleteMapping("/{contractId}")
     public ResponseEntity<String> deleteContract(@PathVariable String contractId) {
         try {
@@ -100,29 +229,25 @@ public class ContractController {
     }
     
     @GetMapping("/{contractId}/download")
-    public ResponseEntity<Resource> downloadContract(@PathVariable String contractId) {
+    public void downloadContract(@PathVariable String contractId,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
         Optional<Contract> contractOpt = contractService.getContract(contractId);
         
         if (contractOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
         
         Contract contract = contractOpt.get();
-        
-        try {
-            Resource file = new FileSystemResource(contract.getFilePath());
-            if (!file.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                       "attachment; filename=\"" + contract.getOriginalFilename() + "\"")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(file);
-                
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        Optional<String> hash = contractService.locateContent(contract);
+        Optional<BlobStorage.BlobInfo> blob = hash.isPresent() ? blobStore.stat(hash.get()) : Optional.empty();
+        if (blob.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        
+        FileDownloadWriter.write(request, response, blob.get(), offset -> blobStore.open(hash.get(), offset),
+            contract.getContentHash(), contract.getOriginalFilename());
     }
 }
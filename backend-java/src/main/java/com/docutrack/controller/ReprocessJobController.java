@@ -0,0 +1,47 @@
+package com.docutrack.controller;
+
+import com.docutrack.model.ReprocessJob;
+import com.docutrack.service.ReprocessJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contracts/reprocess-jobs")
+@CrossOrigin(origins = "*")
+public class ReprocessJobController {
+    
+    @Autowired
+    private ReprocessJobService reprocessJobService;
+    
+    @PostMapping
+    public ResponseEntity<ReprocessJob> createJob(@RequestBody ReprocessJob request) {
+        ReprocessJob job = reprocessJobService.createJob(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, "/api/contracts/reprocess-jobs/" + job.getId())
+            .body(job);
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<ReprocessJob>> getJobs() {
+        return ResponseEntity.ok(reprocessJobService.getJobs());
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReprocessJob> getJob(@PathVariable String jobId) {
+        return reprocessJobService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<ReprocessJob> cancelJob(@PathVariable String jobId) {
+        return reprocessJobService.cancelJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
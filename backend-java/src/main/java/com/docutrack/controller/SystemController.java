@@ -0,0 +1,22 @@
+package com.docutrack.controller;
+
+import com.docutrack.service.ContractCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/system")
+@CrossOrigin(origins = "*")
+public class SystemController {
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(contractCache.getStats());
+    }
+}
@@ -0,0 +1,31 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Reference-counted record of a content-addressed upload; the id is the SHA-256 of the content
+@Document(collection = "blobs")
+public class Blob {
+    @Id
+    private String id;
+    private Long size;
+    private int refCount;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Blob() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,45 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// A contract write announced to the other nodes, so they drop their cached copies of it
+@Document(collection = "cache_invalidations")
+public class CacheInvalidation {
+    @Id
+    private String id;
+    private String contractId;
+    private String owner;
+    private String node;
+    // Only read by polls shortly after the write
+    @Indexed(expireAfter = "1h")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(String contractId, String owner, String node) {
+        this.contractId = contractId;
+        this.owner = owner;
+        this.node = node;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContractId() { return contractId; }
+    public void setContractId(String contractId) { this.contractId = contractId; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public String getNode() { return node; }
+    public void setNode(String node) { this.node = node; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,12 +1,23 @@
 package com.docutrack.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @Document(collection = "contracts")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_upload_date", def = "{'userId': 1, 'uploadDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_status_upload_date", def = "{'userId': 1, 'extractionStatus': 1, 'uploadDate': -1}"),
+    @CompoundIndex(name = "user_contract_type", def = "{'userId': 1, 'variables.contractType': 1}"),
+    @CompoundIndex(name = "user_expires_on", def = "{'userId': 1, 'variables.expiresOn': 1}"),
+    @CompoundIndex(name = "expires_on", def = "{'variables.expiresOn': 1}")
+})
 public class Contract {
     @Id
     private String id;
@@ -14,11 +25,19 @@ public class Contract {
     private String originalFilename;
     private String filePath;
     private Long fileSize;
+    @Indexed
+    private String contentHash;
     private LocalDateTime uploadDate;
     private ContractVariables variables;
     private String extractionStatus;
+    // Only set on contracts stored before the full text moved to ContractTextStore
     private String extractedText;
+    private Integer textLength;
     private String userId;
+    private Integer searchIndexVersion;
+    private String extractorVersion;
+    // Expiration date for which the expiry alert has been raised
+    private LocalDate expiryAlertedFor;
 
     // Constructors
     public Contract() {
@@ -42,6 +61,9 @@ public class Contract {
     public Long getFileSize() { return fileSize; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public LocalDateTime getUploadDate() { return uploadDate; }
     public void setUploadDate(LocalDateTime uploadDate) { this.uploadDate = uploadDate; }
 
@@ -54,6 +76,18 @@ public class Contract {
     public String getExtractedText() { return extractedText; }
     public void setExtractedText(String extractedText) { this.extractedText = extractedText; }
 
+    public Integer getTextLength() { return textLength; }
+    public void setTextLength(Integer textLength) { this.textLength = textLength; }
+
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
+
+    public Integer getSearchIndexVersion() { return searchIndexVersion; }
+    public void setSearchIndexVersion(Integer searchIndexVersion) { this.searchIndexVersion = searchIndexVersion; }
+
+    public String getExtractorVersion() { return extractorVersion; }
+    public void setExtractorVersion(String extractorVersion) { this.extractorVersion = extractorVersion; }
+
+    public LocalDate getExpiryAlertedFor() { return expiryAlertedFor; }
+    public void setExpiryAlertedFor(LocalDate expiryAlertedFor) { this.expiryAlertedFor = expiryAlertedFor; }
 }
@@ -0,0 +1,20 @@
+package com.docutrack.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Counts per filter value for the listing sidebar, most frequent first
+public class ContractFacets {
+    private Map<String, Long> contractType = new LinkedHashMap<>();
+    private Map<String, Long> extractionStatus = new LinkedHashMap<>();
+
+    // Constructors
+    public ContractFacets() {}
+
+    // Getters and Setters
+    public Map<String, Long> getContractType() { return contractType; }
+    public void setContractType(Map<String, Long> contractType) { this.contractType = contractType; }
+
+    public Map<String, Long> getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(Map<String, Long> extractionStatus) { this.extractionStatus = extractionStatus; }
+}
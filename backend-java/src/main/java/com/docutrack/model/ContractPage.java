@@ -0,0 +1,28 @@
+package com.docutrack.model;
+
+import java.util.List;
+
+public class ContractPage {
+    private List<ContractSummary> items;
+    private String nextCursor;
+    private ContractFacets facets;
+
+    // Constructors
+    public ContractPage() {}
+
+    public ContractPage(List<ContractSummary> items, String nextCursor, ContractFacets facets) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public List<ContractSummary> getItems() { return items; }
+    public void setItems(List<ContractSummary> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public ContractFacets getFacets() { return facets; }
+    public void setFacets(ContractFacets facets) { this.facets = facets; }
+}
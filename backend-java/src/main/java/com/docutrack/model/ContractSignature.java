@@ -0,0 +1,37 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// MinHash signature of a contract's body text for near-duplicate lookup, kept out of the contract
+// document so listings and lookups do not carry it; the id is the contract id. The signature is
+// null when the contract has no text.
+@Document(collection = "contract_signatures")
+public class ContractSignature {
+
+    @Id
+    private String id;
+    private int version;
+    private int[] signature;
+    // Other nodes pick up new signatures by this
+    @Indexed
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ContractSignature() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public int[] getSignature() { return signature; }
+    public void setSignature(int[] signature) { this.signature = signature; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,43 @@
+package com.docutrack.model;
+
+import java.time.LocalDateTime;
+
+// List view of a Contract: everything except the stored text and the storage path
+public class ContractSummary {
+    private String id;
+    private String filename;
+    private String originalFilename;
+    private Long fileSize;
+    private LocalDateTime uploadDate;
+    private ContractVariables variables;
+    private String extractionStatus;
+    private String userId;
+
+    // Constructors
+    public ContractSummary() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public LocalDateTime getUploadDate() { return uploadDate; }
+    public void setUploadDate(LocalDateTime uploadDate) { this.uploadDate = uploadDate; }
+
+    public ContractVariables getVariables() { return variables; }
+    public void setVariables(ContractVariables variables) { this.variables = variables; }
+
+    public String getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(String extractionStatus) { this.extractionStatus = extractionStatus; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+}
@@ -0,0 +1,60 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "contract_terms")
+@CompoundIndex(name = "user_term", def = "{'userId': 1, 'term': 1}")
+public class ContractTerm {
+    public static final String FIELD_FILENAME = "filename";
+    public static final String FIELD_PARTY = "party";
+    public static final String FIELD_TYPE = "type";
+    public static final String FIELD_BODY = "body";
+
+    @Id
+    private String id;
+    @Indexed
+    private String contractId;
+    private String userId;
+    private String term;
+    private String field;
+    private double score;
+    // Index run that last wrote this posting; postings from earlier runs are stale
+    private long generation;
+
+    // Constructors
+    public ContractTerm() {}
+
+    public ContractTerm(String contractId, String userId, String term, String field, double score) {
+        this.id = contractId + "|" + field + "|" + term;
+        this.contractId = contractId;
+        this.userId = userId;
+        this.term = term;
+        this.field = field;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContractId() { return contractId; }
+    public void setContractId(String contractId) { this.contractId = contractId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getTerm() { return term; }
+    public void setTerm(String term) { this.term = term; }
+
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public long getGeneration() { return generation; }
+    public void setGeneration(long generation) { this.generation = generation; }
+}
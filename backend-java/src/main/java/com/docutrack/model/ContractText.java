@@ -0,0 +1,38 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Full extracted text of a contract, deflate-compressed and kept out of the contract document;
+// the id is the contract id
+@Document(collection = "contract_texts")
+public class ContractText {
+    public static final String CODEC_DEFLATE = "deflate";
+
+    @Id
+    private String id;
+    private String codec;
+    private int length;
+    private byte[] compressedText;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ContractText() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getCodec() { return codec; }
+    public void setCodec(String codec) { this.codec = codec; }
+
+    public int getLength() { return length; }
+    public void setLength(int length) { this.length = length; }
+
+    public byte[] getCompressedText() { return compressedText; }
+    public void setCompressedText(byte[] compressedText) { this.compressedText = compressedText; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
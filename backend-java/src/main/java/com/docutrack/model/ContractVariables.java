@@ -1,5 +1,6 @@
 package com.docutrack.model;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +10,9 @@ public class ContractVariables {
     private String amount;
     private String date;
     private String expirationDate;
+    // Normalized from date / expirationDate; null when the string is not a recognisable date
+    private LocalDate effectiveOn;
+    private LocalDate expiresOn;
     private List<String> signatures;
     private Map<String, Object> otherFields;
 
@@ -31,6 +35,12 @@ public class ContractVariables {
     public String getExpirationDate() { return expirationDate; }
     public void setExpirationDate(String expirationDate) { this.expirationDate = expirationDate; }
 
+    public LocalDate getEffectiveOn() { return effectiveOn; }
+    public void setEffectiveOn(LocalDate effectiveOn) { this.effectiveOn = effectiveOn; }
+
+    public LocalDate getExpiresOn() { return expiresOn; }
+    public void setExpiresOn(LocalDate expiresOn) { this.expiresOn = expiresOn; }
+
     public List<String> getSignatures() { return signatures; }
     public void setSignatures(List<String> signatures) { this.signatures = signatures; }
 
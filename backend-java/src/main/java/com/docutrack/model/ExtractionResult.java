@@ -0,0 +1,68 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Parsed text and extracted variables for one file content under one extractor version. The text
+// is stored deflate-compressed with the contract_texts codec; ExtractionCache fills in the plain
+// text on read.
+@Document(collection = "extraction_results")
+public class ExtractionResult {
+    @Id
+    private String id;
+    private String contentHash;
+    private String extractorVersion;
+    private String codec;
+    private byte[] compressedText;
+    @Transient
+    private String text;
+    private ContractVariables variables;
+    // Entries of retired extractor versions are never read again and age out
+    @Indexed(expireAfter = "90d")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ExtractionResult() {}
+
+    public ExtractionResult(String contentHash, String extractorVersion, String codec, byte[] compressedText, ContractVariables variables) {
+        this.id = key(contentHash, extractorVersion);
+        this.contentHash = contentHash;
+        this.extractorVersion = extractorVersion;
+        this.codec = codec;
+        this.compressedText = compressedText;
+        this.variables = variables;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static String key(String contentHash, String extractorVersion) {
+        return contentHash + ":" + extractorVersion;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getExtractorVersion() { return extractorVersion; }
+    public void setExtractorVersion(String extractorVersion) { this.extractorVersion = extractorVersion; }
+
+    public String getCodec() { return codec; }
+    public void setCodec(String codec) { this.codec = codec; }
+
+    public byte[] getCompressedText() { return compressedText; }
+    public void setCompressedText(byte[] compressedText) { this.compressedText = compressedText; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public ContractVariables getVariables() { return variables; }
+    public void setVariables(ContractVariables variables) { this.variables = variables; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
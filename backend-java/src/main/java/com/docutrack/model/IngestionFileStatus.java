@@ -0,0 +1,45 @@
+package com.docutrack.model;
+
+public class IngestionFileStatus {
+    public static final String QUEUED = "queued";
+    public static final String PARSING = "parsing";
+    public static final String EXTRACTING = "extracting";
+    public static final String SAVING = "saving";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    private String originalFilename;
+    private Long fileSize;
+    private volatile String status;
+    private volatile String contractId;
+    private volatile String error;
+
+    // Constructors
+    public IngestionFileStatus() {}
+
+    public IngestionFileStatus(String originalFilename, Long fileSize) {
+        this.originalFilename = originalFilename;
+        this.fileSize = fileSize;
+        this.status = QUEUED;
+    }
+
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    // Getters and Setters
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getContractId() { return contractId; }
+    public void setContractId(String contractId) { this.contractId = contractId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,76 @@
+package com.docutrack.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Progress of one upload request. The node running it keeps the live instance and mirrors every
+// status change to Mongo, so any node can answer a poll for it.
+@Document(collection = "ingestion_jobs")
+public class IngestionJob {
+    @Id
+    private String id;
+    private String userId;
+    private LocalDateTime createdAt;
+    private volatile LocalDateTime completedAt;
+    private List<IngestionFileStatus> files;
+    // Finished jobs age out after the retention period; jobs abandoned by a stopped node after a day
+    @JsonIgnore
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public IngestionJob() {
+        this.createdAt = LocalDateTime.now();
+        this.files = new CopyOnWriteArrayList<>();
+    }
+
+    public IngestionJob(String id, String userId) {
+        this();
+        this.id = id;
+        this.userId = userId;
+    }
+
+    // Progress
+    public int getTotal() { return files.size(); }
+
+    public int getCompleted() {
+        return (int) files.stream().filter(f -> IngestionFileStatus.COMPLETED.equals(f.getStatus())).count();
+    }
+
+    public int getFailed() {
+        return (int) files.stream().filter(f -> IngestionFileStatus.FAILED.equals(f.getStatus())).count();
+    }
+
+    public double getProgress() {
+        if (files.isEmpty()) return 1.0;
+        return (double) (getCompleted() + getFailed()) / files.size();
+    }
+
+    public boolean isFinished() {
+        return files.stream().allMatch(IngestionFileStatus::isFinished);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public List<IngestionFileStatus> getFiles() { return files; }
+    public void setFiles(List<IngestionFileStatus> files) { this.files = files; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
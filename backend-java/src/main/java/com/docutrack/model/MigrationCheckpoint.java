@@ -0,0 +1,47 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Progress of a one-time data migration; the id is the migration name
+@Document(collection = "migrations")
+public class MigrationCheckpoint {
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+
+    @Id
+    private String id;
+    private String status;
+    private long migrated;
+    // Last processed _id, for migrations that walk the collection in id order
+    private String lastId;
+    private LocalDateTime startedAt;
+    private LocalDateTime lastBatchAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public MigrationCheckpoint() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getMigrated() { return migrated; }
+    public void setMigrated(long migrated) { this.migrated = migrated; }
+
+    public String getLastId() { return lastId; }
+    public void setLastId(String lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getLastBatchAt() { return lastBatchAt; }
+    public void setLastBatchAt(LocalDateTime lastBatchAt) { this.lastBatchAt = lastBatchAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,120 @@
+package com.docutrack.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Document(collection = "reprocess_jobs")
+public class ReprocessJob {
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String CANCELLED = "cancelled";
+    public static final String FAILED = "failed";
+
+    @Id
+    private String id;
+
+    // Selection; a null userId selects the whole corpus
+    private String userId;
+    private String extractionStatus;
+    private String contractType;
+    private LocalDate uploadedFrom;
+    private LocalDate uploadedTo;
+    private Integer concurrency;
+
+    // Progress and checkpoint: contracts are visited in (uploadDate, id) order
+    private String status;
+    private long total;
+    private long processed;
+    private long failed;
+    private LocalDateTime checkpointUploadDate;
+    private String checkpointId;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime runStartedAt;
+    private long runStartProcessed;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public ReprocessJob() {
+        this.createdAt = LocalDateTime.now();
+        this.status = QUEUED;
+    }
+
+    // Throughput of the current run, in contracts per second
+    public double getThroughput() {
+        if (runStartedAt == null) return 0;
+        LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+        double seconds = Duration.between(runStartedAt, end).toMillis() / 1000.0;
+        return seconds > 0 ? (processed - runStartProcessed) / seconds : 0;
+    }
+
+    public Long getEtaSeconds() {
+        double throughput = getThroughput();
+        if (!RUNNING.equals(status) || throughput <= 0) return null;
+        return (long) Math.ceil(Math.max(0, total - processed) / throughput);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(String extractionStatus) { this.extractionStatus = extractionStatus; }
+
+    public String getContractType() { return contractType; }
+    public void setContractType(String contractType) { this.contractType = contractType; }
+
+    public LocalDate getUploadedFrom() { return uploadedFrom; }
+    public void setUploadedFrom(LocalDate uploadedFrom) { this.uploadedFrom = uploadedFrom; }
+
+    public LocalDate getUploadedTo() { return uploadedTo; }
+    public void setUploadedTo(LocalDate uploadedTo) { this.uploadedTo = uploadedTo; }
+
+    public Integer getConcurrency() { return concurrency; }
+    public void setConcurrency(Integer concurrency) { this.concurrency = concurrency; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getProcessed() { return processed; }
+    public void setProcessed(long processed) { this.processed = processed; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public LocalDateTime getCheckpointUploadDate() { return checkpointUploadDate; }
+    public void setCheckpointUploadDate(LocalDateTime checkpointUploadDate) { this.checkpointUploadDate = checkpointUploadDate; }
+
+    public String getCheckpointId() { return checkpointId; }
+    public void setCheckpointId(String checkpointId) { this.checkpointId = checkpointId; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getRunStartedAt() { return runStartedAt; }
+    public void setRunStartedAt(LocalDateTime runStartedAt) { this.runStartedAt = runStartedAt; }
+
+    public long getRunStartProcessed() { return runStartProcessed; }
+    public void setRunStartProcessed(long runStartProcessed) { this.runStartProcessed = runStartProcessed; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,25 @@
+package com.docutrack.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Arrays;
+
+// Criteria shared by the MongoTemplate-based queries so they all apply the same ownership rule.
+public final class ContractCriteria {
+    
+    // Owner of contracts uploaded without a userId; like legacy documents with no owner at all,
+    // these are visible to every user
+    public static final String SHARED_OWNER = "default";
+    
+    private ContractCriteria() {}
+    
+    // An $in on userId alone, so the (userId, ...) compound indexes still apply (one index range
+    // per value); OwnerMigrationService turns missing owners into an explicit one over time
+    public static Criteria ownedBy(String userId) {
+        return Criteria.where("userId").in(Arrays.asList(userId, SHARED_OWNER, null));
+    }
+    
+    public static boolean isShared(String owner) {
+        return owner == null || SHARED_OWNER.equals(owner);
+    }
+}
@@ -0,0 +1,114 @@
+package com.docutrack.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Combination of the contract listing filters, turned into a single Mongo query. The owner,
+// search matches, upload date range and party form the base criteria; type and status are kept
+// separate so faceted counts can apply every filter except the one being counted.
+public class ContractFilter {
+    
+    private String userId;
+    private String search;
+    // Ids matched by the search index, resolved by ContractQueryService; null without a search
+    private List<String> matchingIds;
+    private String contractType;
+    private String extractionStatus;
+    private LocalDate uploadedFrom;
+    private LocalDate uploadedTo;
+    private String party;
+    
+    public ContractFilter() {}
+    
+    public ContractFilter(String userId, String search, String contractType, String extractionStatus,
+                          LocalDate uploadedFrom, LocalDate uploadedTo, String party) {
+        this.userId = userId;
+        this.search = emptyToNull(search);
+        this.contractType = emptyToNull(contractType);
+        this.extractionStatus = emptyToNull(extractionStatus);
+        this.uploadedFrom = uploadedFrom;
+        this.uploadedTo = uploadedTo;
+        this.party = emptyToNull(party);
+    }
+    
+    public Criteria baseCriteria() {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(ContractCriteria.ownedBy(userId));
+        if (matchingIds != null) {
+            filters.add(Criteria.where("_id").in(matchingIds));
+        }
+        if (uploadedFrom != null) {
+            filters.add(Criteria.where("uploadDate").gte(uploadedFrom.atStartOfDay()));
+        }
+        if (uploadedTo != null) {
+            filters.add(Criteria.where("uploadDate").lt(uploadedTo.plusDays(1).atStartOfDay()));
+        }
+        if (party != null) {
+            filters.add(Criteria.where("variables.partyNames")
+                .regex(Pattern.compile(Pattern.quote(party), Pattern.CASE_INSENSITIVE)));
+        }
+        return and(filters);
+    }
+    
+    public Criteria typeCriteria() {
+        return contractType != null ? Criteria.where("variables.contractType").is(contractType) : new Criteria();
+    }
+    
+    public Criteria statusCriteria() {
+        return extractionStatus != null ? Criteria.where("extractionStatus").is(extractionStatus) : new Criteria();
+    }
+    
+    public Criteria toCriteria() {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(baseCriteria());
+        if (contractType != null) {
+            filters.add(typeCriteria());
+        }
+        if (extractionStatus != null) {
+            filters.add(statusCriteria());
+        }
+        return and(filters);
+    }
+    
+    // Identifies the filter in listing cache keys (the owner is part of the key already)
+    public String cacheKey() {
+        return "search=" + search + "&type=" + contractType + "&status=" + extractionStatus
+            + "&from=" + uploadedFrom + "&to=" + uploadedTo + "&party=" + party;
+    }
+    
+    private static Criteria and(List<Criteria> filters) {
+        return filters.size() == 1 ? filters.get(0) : new Criteria().andOperator(filters);
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = emptyToNull(search); }
+    
+    public List<String> getMatchingIds() { return matchingIds; }
+    public void setMatchingIds(List<String> matchingIds) { this.matchingIds = matchingIds; }
+    
+    public String getContractType() { return contractType; }
+    public void setContractType(String contractType) { this.contractType = emptyToNull(contractType); }
+    
+    public String getExtractionStatus() { return extractionStatus; }
+    public void setExtractionStatus(String extractionStatus) { this.extractionStatus = emptyToNull(extractionStatus); }
+    
+    public LocalDate getUploadedFrom() { return uploadedFrom; }
+    public void setUploadedFrom(LocalDate uploadedFrom) { this.uploadedFrom = uploadedFrom; }
+    
+    public LocalDate getUploadedTo() { return uploadedTo; }
+    public void setUploadedTo(LocalDate uploadedTo) { this.uploadedTo = uploadedTo; }
+    
+    public String getParty() { return party; }
+    public void setParty(String party) { this.party = emptyToNull(party); }
+}
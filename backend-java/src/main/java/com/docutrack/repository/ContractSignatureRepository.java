@@ -0,0 +1,9 @@
+package com.docutrack.repository;
+
+import com.docutrack.model.ContractSignature;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContractSignatureRepository extends MongoRepository<ContractSignature, String> {
+}
@@ -0,0 +1,11 @@
+package com.docutrack.repository;
+
+import com.docutrack.model.ContractTerm;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContractTermRepository extends MongoRepository<ContractTerm, String> {
+    
+    void deleteByContractId(String contractId);
+}
@@ -0,0 +1,9 @@
+package com.docutrack.repository;
+
+import com.docutrack.model.ContractText;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContractTextRepository extends MongoRepository<ContractText, String> {
+}
@@ -0,0 +1,9 @@
+package com.docutrack.repository;
+
+import com.docutrack.model.ExtractionResult;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExtractionResultRepository extends MongoRepository<ExtractionResult, String> {
+}
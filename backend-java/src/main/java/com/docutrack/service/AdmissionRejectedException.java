@@ -0,0 +1,22 @@
+package com.docutrack.service;
+
+// Thrown when an upload cannot be admitted within the ingestion budget; the client should retry later
+public class AdmissionRejectedException extends RuntimeException {
+    
+    private final String reason;
+    private final long retryAfterSeconds;
+    
+    public AdmissionRejectedException(String reason, long retryAfterSeconds) {
+        super("Upload rejected: " + reason);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,156 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.repository.ContractCriteria;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Analytics computed by MongoDB aggregation pipelines; only the aggregates travel to the JVM.
+@Service
+public class AnalyticsService {
+    
+    private static final String COLLECTION = "contracts";
+    private static final List<String> STATUSES = List.of("auto_extracted", "manual_required", "manually_edited");
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    public Map<String, Object> getSummary(String userId) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(ContractCriteria.ownedBy(userId)));
+        
+        var group = Aggregation.group()
+            .count().as("total_contracts")
+            .sum(ConditionalOperators.ifNull("fileSize").then(0)).as("total_size");
+        for (String status : STATUSES) {
+            group = group.sum(ConditionalOperators
+                .when(ComparisonOperators.valueOf("extractionStatus").equalToValue(status))
+                .then(1).otherwise(0)).as(status);
+        }
+        stages.add(group);
+        
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(stages), COLLECTION, Document.class)
+            .getUniqueMappedResult();
+        
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("total_contracts", result != null ? ((Number) result.get("total_contracts")).intValue() : 0);
+        for (String status : STATUSES) {
+            summary.put(status, result != null ? ((Number) result.get(status)).intValue() : 0);
+        }
+        summary.put("total_size", result != null ? ((Number) result.get("total_size")).longValue() : 0L);
+        return summary;
+    }
+    
+    public List<Map<String, Object>> getContractTypes(String userId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(ContractCriteria.ownedBy(userId)),
+            Aggregation.project().and(ConditionalOperators.ifNull("variables.contractType").then("Unknown")).as("contractType"),
+            Aggregation.group("contractType").count().as("count"),
+            Aggregation.sort(Sort.by(Sort.Direction.DESC, "count"))
+        );
+        
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, COLLECTION, Document.class)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("contract_type", row.get("_id"));
+            item.put("count", ((Number) row.get("count")).longValue());
+            result.add(item);
+        }
+        return result;
+    }
+    
+    // Uploads, bytes ingested and extraction-status counts per day or ISO week (UTC)
+    public List<Map<String, Object>> getTimeline(String userId, String bucket, LocalDate from, LocalDate to) {
+        String format = "week".equals(bucket) ? "%G-W%V" : "%Y-%m-%d";
+        // $dateToString buckets the stored instants in UTC, so the range bounds are UTC days as well
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays("week".equals(bucket) ? 7 * 12 : 30);
+        
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(new Criteria().andOperator(
+                ContractCriteria.ownedBy(userId),
+                Criteria.where("uploadDate")
+                    .gte(start.atStartOfDay(ZoneOffset.UTC).toInstant())
+                    .lt(end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+            )),
+            Aggregation.project("fileSize", "extractionStatus")
+                .and(ctx -> new Document("$dateToString", new Document("format", format).append("date", "$uploadDate")))
+                .as("bucket"),
+            Aggregation.group("bucket", "extractionStatus")
+                .count().as("uploads")
+                .sum(ConditionalOperators.ifNull("fileSize").then(0)).as("bytes"),
+            Aggregation.sort(Sort.by(Sort.Direction.ASC, "_id.bucket"))
+        );
+        
+        return mergeTimeline(mongoTemplate.aggregate(aggregation, COLLECTION, Document.class));
+    }
+    
+    // Contracts expiring within the next `days` days, soonest first; a range scan on (userId, variables.expiresOn)
+    public List<Map<String, Object>> getExpiring(String userId, int days) {
+        LocalDate today = LocalDate.now();
+        Query query = new Query(new Criteria().andOperator(
+            ContractCriteria.ownedBy(userId),
+            Criteria.where("variables.expiresOn").gte(today).lte(today.plusDays(days))
+        )).with(Sort.by(Sort.Direction.ASC, "variables.expiresOn"));
+        query.fields().include("_id", "originalFilename", "variables.contractType", "variables.partyNames", "variables.expiresOn");
+        
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Contract contract : mongoTemplate.find(query, Contract.class)) {
+            LocalDate expiresOn = contract.getVariables().getExpiresOn();
+            Map<String, Object> item = new HashMap<>();
+            item.put("contract_id", contract.getId());
+            item.put("filename", contract.getOriginalFilename());
+            item.put("contract_type", contract.getVariables().getContractType());
+            item.put("party_names", contract.getVariables().getPartyNames());
+            item.put("expires_on", expiresOn);
+            item.put("days_left", ChronoUnit.DAYS.between(today, expiresOn));
+            result.add(item);
+        }
+        return result;
+    }
+    
+    // Folds the (bucket, status) groups, sorted by bucket, into one entry per bucket
+    public static List<Map<String, Object>> mergeTimeline(Iterable<Document> rows) {
+        Map<String, Map<String, Object>> buckets = new LinkedHashMap<>();
+        for (Document row : rows) {
+            Document key = (Document) row.get("_id");
+            String bucketKey = key.getString("bucket");
+            String status = key.getString("extractionStatus");
+            
+            Map<String, Object> item = buckets.computeIfAbsent(bucketKey, k -> {
+                Map<String, Object> fresh = new HashMap<>();
+                fresh.put("bucket", k);
+                fresh.put("uploads", 0L);
+                fresh.put("bytes", 0L);
+                fresh.put("extraction_status", new HashMap<String, Long>());
+                return fresh;
+            });
+            long uploads = ((Number) row.get("uploads")).longValue();
+            item.put("uploads", (Long) item.get("uploads") + uploads);
+            item.put("bytes", (Long) item.get("bytes") + ((Number) row.get("bytes")).longValue());
+            @SuppressWarnings("unchecked")
+            Map<String, Long> statusCounts = (Map<String, Long>) item.get("extraction_status");
+            statusCounts.merge(status != null ? status : "unknown", uploads, Long::sum);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+}
@@ -0,0 +1,44 @@
+package com.docutrack.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Where upload content lives, addressed by key (the content hash). BlobStore keeps the reference
+// counts; implementations only move bytes. Selected with docutrack.storage.backend.
+public interface BlobStorage {
+    
+    class BlobInfo {
+        private final long size;
+        private final long lastModified;
+        private final Path localFile;
+        
+        public BlobInfo(long size, long lastModified, Path localFile) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.localFile = localFile;
+        }
+        
+        public long getSize() { return size; }
+        public long getLastModified() { return lastModified; }
+        // Set when the content is a file on this node, so downloads can use sendfile
+        public Path getLocalFile() { return localFile; }
+    }
+    
+    // Stores the content of source under key unless the key already exists. The source may be
+    // moved into place, so callers must not use it afterwards.
+    void put(String key, Path source) throws IOException;
+    
+    boolean exists(String key) throws IOException;
+    
+    Optional<BlobInfo> stat(String key) throws IOException;
+    
+    // Streams the content from offset on; NoSuchFileException when the key does not exist
+    InputStream open(String key, long offset) throws IOException;
+    
+    // Returns false when there was nothing to rename
+    boolean rename(String from, String to) throws IOException;
+    
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,219 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Blob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+// Content-addressed storage for uploaded files. Each distinct content is written once to the
+// configured BlobStorage under its SHA-256, and a reference count in the blobs collection decides
+// when it can go. Uploads land in a local scratch file under <blob-dir>/tmp and are hashed from there.
+@Service
+public class BlobStore {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private BlobStorage storage;
+    
+    private static final int TRANSFER_BUFFER_BYTES = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> TRANSFER_BUFFER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(TRANSFER_BUFFER_BYTES));
+    
+    @Value("${docutrack.storage.blob-dir:uploads/blobs}")
+    private String blobDir;
+    
+    public static class StoredBlob {
+        private final String hash;
+        private final long size;
+        private final boolean duplicate;
+        
+        StoredBlob(String hash, long size, boolean duplicate) {
+            this.hash = hash;
+            this.size = size;
+            this.duplicate = duplicate;
+        }
+        
+        public String getHash() { return hash; }
+        public long getSize() { return size; }
+        public boolean isDuplicate() { return duplicate; }
+    }
+    
+    // Multipart uploads: the part is spooled to disk by the container (file-size-threshold=0) and
+    // transferTo moves that file into the scratch directory, copying only across file systems, so
+    // the content is never read into the heap on the way to storage.
+    public StoredBlob store(MultipartFile file, byte[] signature) throws IOException {
+        Path tmp = newScratchFile();
+        try {
+            // Absolute path: the container resolves relative ones against its own spool location
+            file.transferTo(tmp.toAbsolutePath().toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return storeScratchFile(tmp, signature);
+    }
+    
+    // Any other source (e.g. a legacy file being migrated) is first copied to a scratch file
+    public StoredBlob store(InputStream in, byte[] signature) throws IOException {
+        Path tmp = newScratchFile();
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return storeScratchFile(tmp, signature);
+    }
+    
+    // Hashes and sizes the scratch file through a fixed-size direct buffer, checks that a non-null
+    // signature prefixes the content, then adds a reference to the blob. The scratch file is always removed.
+    private StoredBlob storeScratchFile(Path tmp, byte[] signature) throws IOException {
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            ByteBuffer buffer = TRANSFER_BUFFER.get();
+            byte[] head = new byte[signature != null ? signature.length : 0];
+            
+            try (FileChannel source = FileChannel.open(tmp, StandardOpenOption.READ)) {
+                buffer.clear();
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    if (size < head.length) {
+                        int n = (int) Math.min(head.length - size, buffer.remaining());
+                        buffer.duplicate().get(head, (int) size, n);
+                        if (size + n == head.length && !Arrays.equals(head, signature)) {
+                            throw new IllegalArgumentException("File content does not match the expected file type");
+                        }
+                    }
+                    size += buffer.remaining();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            if (size < head.length) {
+                throw new IllegalArgumentException("File content does not match the expected file type");
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            
+            // Take the reference before checking the file so a concurrent release cannot remove it underneath us
+            Blob blob = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(hash)),
+                new Update().inc("refCount", 1).setOnInsert("size", size).setOnInsert("createdAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Blob.class);
+            
+            try {
+                storage.put(hash, tmp);
+            } catch (IOException | RuntimeException e) {
+                // Nobody will hold the reference taken above
+                try {
+                    release(hash);
+                } catch (IOException | RuntimeException releaseFailure) {
+                    e.addSuppressed(releaseFailure);
+                }
+                throw e;
+            }
+            return new StoredBlob(hash, size, blob != null && blob.getRefCount() > 1);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+    
+    // Moves content that is already referenced (by hash) into the storage, e.g. a file left on a
+    // node's disk from before the storage was shared. The local file is removed once the storage has it.
+    public void adopt(String hash, Path file) throws IOException {
+        Path tmp = newScratchFile();
+        try {
+            Files.copy(file, tmp);
+            storage.put(hash, tmp);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        Optional<BlobStorage.BlobInfo> stored = storage.stat(hash);
+        if (stored.isEmpty()) {
+            return;
+        }
+        Path storedFile = stored.get().getLocalFile();
+        if (storedFile == null || !Files.isSameFile(storedFile, file)) {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    public boolean exists(String hash) throws IOException {
+        return storage.exists(hash);
+    }
+    
+    public Optional<BlobStorage.BlobInfo> stat(String hash) throws IOException {
+        return storage.stat(hash);
+    }
+    
+    public InputStream open(String hash, long offset) throws IOException {
+        return storage.open(hash, offset);
+    }
+    
+    // Drops one reference and deletes the content once nothing points to it
+    public void release(String hash) throws IOException {
+        Blob blob = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(hash)),
+            new Update().inc("refCount", -1),
+            FindAndModifyOptions.options().returnNew(true),
+            Blob.class);
+        if (blob == null || blob.getRefCount() > 0) {
+            return;
+        }
+        
+        // Park the content first; if a new reference arrives before the record is removed, put it back
+        String parked = hash + ".deleting-" + UUID.randomUUID();
+        boolean moved = storage.rename(hash, parked);
+        
+        long removed = mongoTemplate.remove(
+            Query.query(Criteria.where("_id").is(hash).and("refCount").lte(0)), Blob.class).getDeletedCount();
+        if (!moved) {
+            return;
+        }
+        if (removed == 0 && !storage.exists(hash)) {
+            storage.rename(parked, hash);
+        } else {
+            storage.delete(parked);
+        }
+    }
+    
+    private Path newScratchFile() throws IOException {
+        Path tmpDir = Paths.get(blobDir, "tmp");
+        Files.createDirectories(tmpDir);
+        return tmpDir.resolve(UUID.randomUUID().toString());
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
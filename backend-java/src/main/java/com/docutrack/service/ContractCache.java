@@ -0,0 +1,188 @@
+package com.docutrack.service;
+
+import com.docutrack.model.CacheInvalidation;
+import com.docutrack.model.Contract;
+import com.docutrack.repository.ContractCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Bounded read-through caches in front of ContractRepository: single contracts by id, and
+// per-user listing results. Listing keys embed a per-owner version that ContractService bumps on
+// every mutation, so stale listings are never served; they simply age out. Shared contracts are
+// visible to every user, so changing one bumps the global version instead. Contracts are cached
+// as their stored BSON form, in single lookups and contract listings alike, and every lookup gets
+// its own copy, so a caller mutating the instance it received can never expose a half-applied
+// change to concurrent readers.
+//
+// With several nodes behind a load balancer, each invalidation is also recorded in
+// cache_invalidations; every node polls it and drops what the others changed, so a write on one
+// node is visible everywhere within the poll interval instead of the cache TTL.
+@Component
+public class ContractCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContractCache.class);
+    
+    // Polls re-read this far back, so invalidations stamped by a node with a slightly late clock are not missed
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+    
+    private final Cache<String, Document> contracts;
+    private final Cache<String, Object> listings;
+    
+    private final Map<String, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final MongoConverter mongoConverter;
+    
+    private final MongoTemplate mongoTemplate;
+    private final boolean crossNode;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Invalidations already applied that the next poll may return again
+    private final Map<String, LocalDateTime> appliedInvalidations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime polledUpTo = LocalDateTime.now();
+    
+    public ContractCache(@Value("${docutrack.cache.contracts.max-size:10000}") long contractsMaxSize,
+                         @Value("${docutrack.cache.contracts.ttl:10m}") Duration contractsTtl,
+                         @Value("${docutrack.cache.listings.max-size:1000}") long listingsMaxSize,
+                         @Value("${docutrack.cache.listings.ttl:60s}") Duration listingsTtl,
+                         @Value("${docutrack.cache.cross-node.enabled:true}") boolean crossNode,
+                         MeterRegistry meterRegistry,
+                         MongoConverter mongoConverter,
+                         MongoTemplate mongoTemplate) {
+        this.mongoConverter = mongoConverter;
+        this.mongoTemplate = mongoTemplate;
+        this.crossNode = crossNode;
+        contracts = Caffeine.newBuilder()
+            .maximumSize(contractsMaxSize)
+            .expireAfterWrite(contractsTtl)
+            .recordStats()
+            .build();
+        listings = Caffeine.newBuilder()
+            .maximumSize(listingsMaxSize)
+            .expireAfterWrite(listingsTtl)
+            .recordStats()
+            .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, contracts, "contracts");
+        CaffeineCacheMetrics.monitor(meterRegistry, listings, "contract_listings");
+    }
+    
+    public Optional<Contract> getContract(String contractId, Function<String, Optional<Contract>> loader) {
+        Document cached = contracts.get(contractId, id -> loader.apply(id).map(this::snapshot).orElse(null));
+        return Optional.ofNullable(cached).map(document -> mongoConverter.read(Contract.class, document));
+    }
+    
+    // A listing of whole contracts; the returned list and its contracts belong to the caller
+    public List<Contract> getContracts(String userId, String query, Supplier<List<Contract>> loader) {
+        List<Document> cached = getListing(userId, query, () -> loader.get().stream().map(this::snapshot).toList());
+        List<Contract> copies = new ArrayList<>(cached.size());
+        for (Document document : cached) {
+            copies.add(mongoConverter.read(Contract.class, document));
+        }
+        return copies;
+    }
+    
+    // The loader's result is shared by every caller until it expires, so it must not be modified
+    @SuppressWarnings("unchecked")
+    public <T> T getListing(String userId, String query, Supplier<T> loader) {
+        String key = (userId == null ? "" : userId) + "@" + globalVersion.get() + "." + versionOf(userId).get() + "?" + query;
+        return (T) listings.get(key, k -> loader.get());
+    }
+    
+    // Called around every write to a contract: drops the cached copy and retires the owner's listings
+    public void invalidate(Contract contract) {
+        invalidate(contract.getId(), contract.getUserId());
+    }
+    
+    public void invalidate(String contractId, String owner) {
+        invalidateLocally(contractId, owner);
+        if (crossNode) {
+            try {
+                mongoTemplate.insert(new CacheInvalidation(contractId, owner, nodeId));
+            } catch (RuntimeException e) {
+                // The write itself succeeded; other nodes catch up when their copies expire
+                log.warn("Could not announce change of contract {}: {}", contractId, e.getMessage());
+            }
+        }
+    }
+    
+    // Applies the invalidations other nodes recorded since the last poll
+    @Scheduled(fixedDelayString = "${docutrack.cache.cross-node.poll-ms:2000}")
+    public void applyRemoteInvalidations() {
+        if (!crossNode) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("createdAt").gte(polledUpTo.minus(CLOCK_SKEW)).and("node").ne(nodeId));
+        for (CacheInvalidation change : mongoTemplate.find(query, CacheInvalidation.class)) {
+            if (appliedInvalidations.putIfAbsent(change.getId(), change.getCreatedAt()) == null) {
+                invalidateLocally(change.getContractId(), change.getOwner());
+            }
+        }
+        polledUpTo = now;
+        LocalDateTime forgetBefore = now.minus(CLOCK_SKEW);
+        appliedInvalidations.values().removeIf(createdAt -> createdAt.isBefore(forgetBefore));
+    }
+    
+    private void invalidateLocally(String contractId, String owner) {
+        contracts.invalidate(contractId);
+        if (ContractCriteria.isShared(owner)) {
+            globalVersion.incrementAndGet();
+        } else {
+            versionOf(owner).incrementAndGet();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("contracts", describe(contracts));
+        stats.put("listings", describe(listings));
+        return stats;
+    }
+    
+    private Document snapshot(Contract contract) {
+        Document document = new Document();
+        mongoConverter.write(contract, document);
+        return document;
+    }
+    
+    private AtomicLong versionOf(String userId) {
+        return ownerVersions.computeIfAbsent(userId == null ? "" : userId, k -> new AtomicLong());
+    }
+    
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hit_rate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("load_failures", stats.loadFailureCount());
+        return result;
+    }
+}
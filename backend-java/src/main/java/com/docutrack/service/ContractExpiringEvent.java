@@ -0,0 +1,24 @@
+package com.docutrack.service;
+
+import java.time.LocalDate;
+
+// Published once per contract and expiration date when the contract enters its notice period
+public class ContractExpiringEvent {
+    
+    private final String contractId;
+    private final String userId;
+    private final String filename;
+    private final LocalDate expiresOn;
+    
+    public ContractExpiringEvent(String contractId, String userId, String filename, LocalDate expiresOn) {
+        this.contractId = contractId;
+        this.userId = userId;
+        this.filename = filename;
+        this.expiresOn = expiresOn;
+    }
+    
+    public String getContractId() { return contractId; }
+    public String getUserId() { return userId; }
+    public String getFilename() { return filename; }
+    public LocalDate getExpiresOn() { return expiresOn; }
+}
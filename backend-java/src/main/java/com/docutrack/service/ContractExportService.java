@@ -0,0 +1,163 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractVariables;
+import com.docutrack.repository.ContractFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Portfolio export as NDJSON or CSV. Rows are read from a Mongo cursor and written one at a time,
+// so memory use does not depend on the number of contracts exported.
+@Service
+public class ContractExportService {
+    
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+    
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    // Exportable fields, in default column order, with the document path each one reads
+    private static final Map<String, String> FIELD_PATHS = new LinkedHashMap<>();
+    private static final Map<String, Function<Contract, Object>> FIELD_VALUES = new LinkedHashMap<>();
+    
+    static {
+        field("id", "_id", Contract::getId);
+        field("originalFilename", "originalFilename", Contract::getOriginalFilename);
+        field("fileSize", "fileSize", Contract::getFileSize);
+        field("contentHash", "contentHash", Contract::getContentHash);
+        field("uploadDate", "uploadDate", Contract::getUploadDate);
+        field("userId", "userId", Contract::getUserId);
+        field("extractionStatus", "extractionStatus", Contract::getExtractionStatus);
+        field("contractType", "variables.contractType", variable(ContractVariables::getContractType));
+        field("partyNames", "variables.partyNames", variable(ContractVariables::getPartyNames));
+        field("amount", "variables.amount", variable(ContractVariables::getAmount));
+        field("date", "variables.date", variable(ContractVariables::getDate));
+        field("expirationDate", "variables.expirationDate", variable(ContractVariables::getExpirationDate));
+        field("effectiveOn", "variables.effectiveOn", variable(ContractVariables::getEffectiveOn));
+        field("expiresOn", "variables.expiresOn", variable(ContractVariables::getExpiresOn));
+        field("signatures", "variables.signatures", variable(ContractVariables::getSignatures));
+        field("textLength", "textLength", Contract::getTextLength);
+    }
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ContractQueryService contractQueryService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Validates the requested columns up front, so a bad request fails before streaming starts
+    public List<String> resolveFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new ArrayList<>(FIELD_PATHS.keySet());
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELD_PATHS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown export field: " + name);
+            }
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+    
+    public void export(ContractFilter filter, String format, List<String> fields, OutputStream out) throws IOException {
+        // Exports must not stop at the interactive search cap. All matches are held as a set and the
+        // filtered portfolio is streamed past it, so rows keep their order and the query stays small
+        // however many contracts match.
+        Set<String> matches = filter.getSearch() != null ? contractQueryService.allSearchMatches(filter) : null;
+        Query query = new Query(filter.toCriteria()).with(Sort.by(Sort.Direction.DESC, "uploadDate", "_id"));
+        query.fields().include(fields.stream().map(FIELD_PATHS::get).toArray(String[]::new));
+        query.cursorBatchSize(1000);
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        if (CSV.equals(format)) {
+            writeCsvRow(writer, new ArrayList<>(fields));
+        }
+        
+        try (Stream<Contract> contracts = mongoTemplate.stream(query, Contract.class)) {
+            for (Contract contract : (Iterable<Contract>) contracts::iterator) {
+                if (matches != null && !matches.contains(contract.getId())) {
+                    continue;
+                }
+                if (CSV.equals(format)) {
+                    List<Object> row = new ArrayList<>(fields.size());
+                    for (String field : fields) {
+                        row.add(FIELD_VALUES.get(field).apply(contract));
+                    }
+                    writeCsvRow(writer, row);
+                } else {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (String field : fields) {
+                        row.put(field, FIELD_VALUES.get(field).apply(contract));
+                    }
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+    
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    private static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof List ? String.join("; ", ((List<?>) value).stream().map(String::valueOf).toList()) : value.toString();
+        // Spreadsheets evaluate cells starting with these characters as formulas (OWASP CSV injection list)
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+    
+    private static void field(String name, String path, Function<Contract, Object> value) {
+        FIELD_PATHS.put(name, path);
+        FIELD_VALUES.put(name, value);
+    }
+    
+    private static Function<Contract, Object> variable(Function<ContractVariables, Object> getter) {
+        return contract -> contract.getVariables() != null ? getter.apply(contract.getVariables()) : null;
+    }
+    
+    public static List<String> formats() {
+        return Arrays.asList(NDJSON, CSV);
+    }
+}
@@ -0,0 +1,189 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractFacets;
+import com.docutrack.model.ContractPage;
+import com.docutrack.model.ContractSummary;
+import com.docutrack.repository.ContractFilter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Filtered contract listings. Pages are keyset-paginated, ordered by uploadDate then id (newest
+// first, also with a search), and the cursor encodes the last row of the previous page.
+@Service
+public class ContractQueryService {
+    
+    private static final String COLLECTION = "contracts";
+    private static final String[] SUMMARY_FIELDS = {
+        "filename", "originalFilename", "fileSize", "uploadDate", "variables", "extractionStatus", "userId"
+    };
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
+    @Value("${docutrack.listing.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${docutrack.listing.max-page-size:200}")
+    private int maxPageSize;
+    
+    @Value("${docutrack.search.max-hits:1000}")
+    private int maxSearchHits;
+    
+    public ContractPage listContracts(ContractFilter filter, String cursor, Integer limit) {
+        String key = "page?" + filter.cacheKey() + "&cursor=" + cursor + "&limit=" + limit;
+        return contractCache.getListing(filter.getUserId(), key, () -> loadPage(filter, cursor, limit));
+    }
+    
+    // Every matching contract, newest first; with a search, best match first
+    public List<Contract> findContracts(ContractFilter filter) {
+        return contractCache.getContracts(filter.getUserId(), "all?" + filter.cacheKey(), () -> loadContracts(filter));
+    }
+    
+    private List<Contract> loadContracts(ContractFilter filter) {
+        resolveSearch(filter);
+        Query query = new Query(filter.toCriteria()).with(Sort.by(Sort.Direction.DESC, "uploadDate", "_id"));
+        List<Contract> contracts = mongoTemplate.find(query, Contract.class, COLLECTION);
+        
+        if (filter.getMatchingIds() != null) {
+            Map<String, Integer> rank = new HashMap<>();
+            List<String> rankedIds = filter.getMatchingIds();
+            for (int i = 0; i < rankedIds.size(); i++) {
+                rank.put(rankedIds.get(i), i);
+            }
+            contracts.sort(Comparator.comparing(contract -> rank.get(contract.getId())));
+        }
+        return contracts;
+    }
+    
+    // One aggregation returns the page and the facet counts. The base filters are matched first, so
+    // the (userId, ...) indexes apply; each facet then adds every remaining filter except its own.
+    private ContractPage loadPage(ContractFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        resolveSearch(filter);
+        
+        List<Criteria> itemFilters = new ArrayList<>(List.of(filter.typeCriteria(), filter.statusCriteria()));
+        if (cursor != null && !cursor.isEmpty()) {
+            itemFilters.add(afterCursor(cursor));
+        }
+        
+        // $facet sees only the summary fields, not whole contract documents
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(filter.baseCriteria()),
+            Aggregation.project(SUMMARY_FIELDS),
+            Aggregation.facet(
+                    Aggregation.match(new Criteria().andOperator(itemFilters)),
+                    Aggregation.sort(Sort.by(Sort.Direction.DESC, "uploadDate", "_id")),
+                    Aggregation.limit(pageSize + 1))
+                .as("items")
+                .and(
+                    Aggregation.match(filter.statusCriteria()),
+                    Aggregation.project().and(ConditionalOperators.ifNull("variables.contractType").then("Unknown")).as("value"),
+                    Aggregation.group("value").count().as("count"),
+                    Aggregation.sort(Sort.by(Sort.Direction.DESC, "count")))
+                .as("contractType")
+                .and(
+                    Aggregation.match(filter.typeCriteria()),
+                    Aggregation.project().and(ConditionalOperators.ifNull("extractionStatus").then("unknown")).as("value"),
+                    Aggregation.group("value").count().as("count"),
+                    Aggregation.sort(Sort.by(Sort.Direction.DESC, "count")))
+                .as("extractionStatus")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getUniqueMappedResult();
+        
+        List<ContractSummary> items = new ArrayList<>();
+        for (Document item : result.getList("items", Document.class)) {
+            items.add(mongoTemplate.getConverter().read(ContractSummary.class, item));
+        }
+        
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = encodeCursor(items.get(pageSize - 1));
+        }
+        
+        ContractFacets facets = new ContractFacets();
+        facets.setContractType(counts(result.getList("contractType", Document.class)));
+        facets.setExtractionStatus(counts(result.getList("extractionStatus", Document.class)));
+        // Cached pages are shared between callers
+        return new ContractPage(List.copyOf(items), nextCursor, facets);
+    }
+    
+    // The best maxSearchHits matches become an _id $in list, which keeps the query document small
+    void resolveSearch(ContractFilter filter) {
+        if (filter.getSearch() != null && filter.getMatchingIds() == null) {
+            filter.setMatchingIds(searchIndexService.search(filter.getUserId(), filter.getSearch(), maxSearchHits));
+        }
+    }
+    
+    // Every search match, without the interactive hit cap; used where a truncated result would be wrong
+    Set<String> allSearchMatches(ContractFilter filter) {
+        return new HashSet<>(searchIndexService.search(filter.getUserId(), filter.getSearch(), Integer.MAX_VALUE));
+    }
+    
+    private static Map<String, Long> counts(List<Document> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document row : rows) {
+            counts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+    
+    private static Criteria afterCursor(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = decoded.indexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        
+        LocalDateTime uploadDate;
+        try {
+            uploadDate = LocalDateTime.parse(decoded.substring(0, separator));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String id = decoded.substring(separator + 1);
+        
+        return new Criteria().orOperator(
+            Criteria.where("uploadDate").lt(uploadDate),
+            new Criteria().andOperator(Criteria.where("uploadDate").is(uploadDate), Criteria.where("_id").lt(id))
+        );
+    }
+    
+    private static String encodeCursor(ContractSummary last) {
+        String raw = last.getUploadDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
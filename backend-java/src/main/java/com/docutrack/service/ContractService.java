@@ -1,21 +1,27 @@
 package com.docutrack.service;
 
 import com.docutrack.model.Contract;
+import com.docutrack.model.ContractTerm;
 import com.docutrack.model.ContractVariables;
+import com.docutrack.model.ExtractionResult;
+import com.docutrack.repository.ContractFilter;
 import com.docutrack.repository.ContractRepository;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class ContractService {
@@ -23,215 +29,414 @@ public class ContractService {
     @Autowired
     private ContractRepository contractRepository;
     
-    private final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private DocxTextExtractor docxTextExtractor;
     
-    public List<Contract> getAllContracts(String userId, String search, String contractType, String extractionStatus) {
-        // Create upload directory if it doesn't exist
-        try {
-            Files.createDirectories(Paths.get(UPLOAD_DIR));
-        } catch (IOException e) {
-            // Directory already exists or creation failed
-        }
-        
-        if (search != null && !search.isEmpty()) {
-            return contractRepository.findByUserIdAndSearch(userId, search);
-        } else if (extractionStatus != null && !extractionStatus.isEmpty()) {
-            return contractRepository.findByUserIdAndExtractionStatus(userId, extractionStatus);
-        } else {
-            return contractRepository.findByUserIdOrLegacy(userId);
-        }
+    @Autowired
+    private VariableExtractor variableExtractor;
+    
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @Autowired
+    private ExtractionCache extractionCache;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private ContractQueryService contractQueryService;
+    
+    @Autowired
+    private ContractTextStore contractTextStore;
+    
+    @Autowired
+    private SimilarityService similarityService;
+    
+    @Autowired
+    private ExpiryAlertScheduler expiryAlertScheduler;
+    
+    // DOCX files are zip packages, which start with a local file header
+    private static final byte[] DOCX_SIGNATURE = {'P', 'K', 3, 4};
+    
+    public List<Contract> getAllContracts(ContractFilter filter) {
+        return contractQueryService.findContracts(filter);
     }
     
-    public Contract uploadContract(MultipartFile file, String userId) throws IOException {
+    public Contract storeUpload(MultipartFile file, String userId) throws IOException {
         // Validate file type
-        if (!file.getOriginalFilename().toLowerCase().endsWith(".docx")) {
+        if (file.getOriginalFilename() == null || !file.getOriginalFilename().toLowerCase().endsWith(".docx")) {
             throw new IllegalArgumentException("Only DOCX files are supported");
         }
         
         // Generate unique filename
         String contractId = UUID.randomUUID().toString();
         String safeFilename = contractId + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(UPLOAD_DIR + safeFilename);
         
-        // Save file
-        Files.write(filePath, file.getBytes());
-        
-        // Extract text from DOCX
-        String extractedText = extractTextFromDocx(file);
-        
-        // Extract variables using AI
-        ContractVariables variables = extractVariablesWithAI(extractedText);
+        // Save file, shared with any earlier upload of identical content
+        BlobStore.StoredBlob blob;
+        try {
+            blob = pipelineMetrics.time(PipelineMetrics.UPLOAD, PipelineMetrics.DISK_WRITE, () -> blobStore.store(file, DOCX_SIGNATURE));
+        } catch (IOException | RuntimeException e) {
+            pipelineMetrics.recordOutcome(PipelineMetrics.UPLOAD, PipelineMetrics.FAILED);
+            throw e;
+        }
+        pipelineMetrics.recordBytesIngested(blob.getSize());
         
-        // Create contract object
         Contract contract = new Contract();
         contract.setId(contractId);
         contract.setFilename(safeFilename);
         contract.setOriginalFilename(file.getOriginalFilename());
-        contract.setFilePath(filePath.toString());
-        contract.setFileSize(file.getSize());
+        contract.setContentHash(blob.getHash());
+        contract.setFileSize(blob.getSize());
+        contract.setUserId(userId);
+        return contract;
+    }
+    
+    // Text and variables already produced for the same content by the current extractor
+    public Optional<ExtractionResult> findCachedExtraction(Contract contract) {
+        return extractionCache.find(contract.getContentHash());
+    }
+    
+    public void cacheExtraction(Contract contract, String extractedText, ContractVariables variables) {
+        extractionCache.put(contract.getContentHash(), extractedText, variables);
+    }
+    
+    // Streams the original file from blob storage into the parser
+    public String readText(Contract contract, String pipeline) throws IOException {
+        String hash = locateContent(contract).orElseThrow(() -> new RuntimeException("Original file not found"));
+        return pipelineMetrics.time(pipeline, PipelineMetrics.PARSE, () -> {
+            try (InputStream in = blobStore.open(hash, 0)) {
+                return docxTextExtractor.extract(in);
+            }
+        });
+    }
+    
+    // Blob storage key of the original file. Contracts from before blob storage was shared still point
+    // at a file on some node's disk (filePath); the node that has it moves it into blob storage here.
+    public Optional<String> locateContent(Contract contract) throws IOException {
+        String hash = contract.getContentHash();
+        if (hash != null && blobStore.exists(hash)) {
+            return Optional.of(hash);
+        }
+        if (contract.getFilePath() == null || !Files.isRegularFile(Paths.get(contract.getFilePath()))) {
+            return Optional.empty();
+        }
+        
+        Path legacyFile = Paths.get(contract.getFilePath());
+        if (hash != null) {
+            // Content-addressed, but written to this node's blob-dir before the storage was configurable
+            blobStore.adopt(hash, legacyFile);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(contract.getId())),
+                new Update().unset("filePath"), Contract.class);
+        } else {
+            // Uploaded before content addressing: reference a blob like a new upload would
+            BlobStore.StoredBlob blob;
+            try (InputStream in = Files.newInputStream(legacyFile)) {
+                blob = blobStore.store(in, null);
+            }
+            hash = blob.getHash();
+            long claimed = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(contract.getId()).and("contentHash").is(null)),
+                new Update().set("contentHash", hash).unset("filePath"),
+                Contract.class).getModifiedCount();
+            if (claimed == 0) {
+                // Another node migrated it concurrently; same content, so same hash
+                blobStore.release(hash);
+            } else {
+                Files.deleteIfExists(legacyFile);
+            }
+        }
+        
+        contract.setContentHash(hash);
+        contract.setFilePath(null);
+        contractCache.invalidate(contract);
+        return Optional.of(hash);
+    }
+    
+    public ContractVariables extractVariables(String extractedText, String pipeline) {
+        return pipelineMetrics.time(pipeline, PipelineMetrics.EXTRACT, () -> extractVariablesWithAI(extractedText));
+    }
+    
+    public Contract completeUpload(Contract contract, String extractedText, ContractVariables variables) {
         contract.setVariables(variables);
         contract.setExtractionStatus("auto_extracted");
-        contract.setExtractedText(extractedText.length() > 5000 ? extractedText.substring(0, 5000) : extractedText);
-        contract.setUserId(userId);
+        contract.setExtractorVersion(extractionCache.getExtractorVersion());
+        contract.setTextLength(extractedText.length());
+        pipelineMetrics.run(PipelineMetrics.UPLOAD, PipelineMetrics.TEXT_SAVE, () -> contractTextStore.save(contract.getId(), extractedText));
+        pipelineMetrics.run(PipelineMetrics.UPLOAD, PipelineMetrics.INDEX, () -> {
+            searchIndexService.index(contract, extractedText);
+            similarityService.index(contract.getId(), extractedText);
+        });
         
-        return contractRepository.save(contract);
+        Contract saved = pipelineMetrics.time(PipelineMetrics.UPLOAD, PipelineMetrics.SAVE, () -> contractRepository.save(contract));
+        contractCache.invalidate(saved);
+        expiryAlertScheduler.track(saved);
+        pipelineMetrics.recordOutcome(PipelineMetrics.UPLOAD, saved.getExtractionStatus());
+        return saved;
+    }
+    
+    // Rolls back a failed upload
+    public void discardUpload(Contract contract) {
+        pipelineMetrics.recordOutcome(PipelineMetrics.UPLOAD, PipelineMetrics.FAILED);
+        searchIndexService.remove(contract.getId());
+        similarityService.remove(contract.getId());
+        contractTextStore.delete(contract.getId());
+        try {
+            deleteStoredFile(contract);
+        } catch (IOException e) {
+            // Leftover file is harmless, nothing references it
+        }
+    }
+    
+    private void deleteStoredFile(Contract contract) throws IOException {
+        if (contract.getContentHash() != null) {
+            blobStore.release(contract.getContentHash());
+        } else if (contract.getFilePath() != null) {
+            Files.deleteIfExists(Paths.get(contract.getFilePath()));
+        }
     }
     
     public void deleteContract(String contractId) throws IOException {
-        Optional<Contract> contractOpt = contractRepository.findById(contractId);
+        Optional<Contract> contractOpt = getContract(contractId);
         if (contractOpt.isPresent()) {
             Contract contract = contractOpt.get();
             // Delete file from filesystem
             try {
-                Files.deleteIfExists(Paths.get(contract.getFilePath()));
+                deleteStoredFile(contract);
             } catch (IOException e) {
                 // File deletion failed, but continue with database deletion
             }
             contractRepository.deleteById(contractId);
+            contractCache.invalidate(contract);
+            searchIndexService.remove(contractId);
+            similarityService.remove(contractId);
+            contractTextStore.delete(contractId);
         }
     }
     
     public Optional<Contract> getContract(String contractId) {
-        return contractRepository.findById(contractId);
+        return contractCache.getContract(contractId, contractRepository::findById);
+    }
+    
+    // The complete extracted text, loaded only on request
+    public Optional<String> getExtractedText(String contractId) throws IOException {
+        Optional<String> stored = contractTextStore.load(contractId);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        
+        Optional<Contract> contractOpt = getContract(contractId);
+        if (contractOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        // Older contracts only carry a copy truncated at 5000 characters inline; parse the original
+        // file again on first read so the text store gets the complete text
+        Contract contract = contractOpt.get();
+        if (locateContent(contract).isEmpty()) {
+            return Optional.ofNullable(contract.getExtractedText());
+        }
+        String fullText = readText(contract, PipelineMetrics.REPROCESS);
+        contractTextStore.save(contractId, fullText);
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(contractId)),
+            new Update().unset("extractedText").set("textLength", fullText.length()),
+            Contract.class);
+        contractCache.invalidate(contract);
+        return Optional.of(fullText);
     }
     
     public Contract reprocessContract(String contractId) throws IOException {
-        Optional<Contract> contractOpt = contractRepository.findById(contractId);
+        Optional<Contract> contractOpt = getContract(contractId);
         if (contractOpt.isEmpty()) {
             throw new RuntimeException("Contract not found");
         }
         
         Contract contract = contractOpt.get();
-        
-        // Re-extract text from the original file
-        Path filePath = Paths.get(contract.getFilePath());
-        if (!Files.exists(filePath)) {
-            throw new RuntimeException("Original file not found");
+        Optional<Reprocessed> reprocessed = applyReprocess(contract);
+        if (reprocessed.isEmpty()) {
+            return contract;
         }
+        writeReprocessedData(List.of(reprocessed.get()));
         
-        // Read file and extract text again
-        byte[] fileBytes = Files.readAllBytes(filePath);
-        String extractedText = extractTextFromDocxBytes(fileBytes);
+        // Only the reprocessed fields are written, so targeted writes made meanwhile (alert markers,
+        // backfills) are kept
+        Contract saved = pipelineMetrics.time(PipelineMetrics.REPROCESS, PipelineMetrics.SAVE,
+            () -> applyUpdate(contractId, reprocessUpdate(contract)));
+        contractCache.invalidate(saved);
+        expiryAlertScheduler.track(saved);
+        return saved;
+    }
+    
+    // Re-extracts the contract and prepares its text, search postings and signature, without writing
+    // anything; the variables are refreshed on the instance. Empty when the contract already holds the
+    // current extractor's output for its content, so there is nothing to write.
+    public Optional<Reprocessed> applyReprocess(Contract contract) throws IOException {
+        try {
+            Optional<Reprocessed> reprocessed = refreshExtraction(contract);
+            pipelineMetrics.recordOutcome(PipelineMetrics.REPROCESS,
+                reprocessed.isPresent() ? contract.getExtractionStatus() : PipelineMetrics.UNCHANGED);
+            return reprocessed;
+        } catch (IOException | RuntimeException e) {
+            pipelineMetrics.recordOutcome(PipelineMetrics.REPROCESS, PipelineMetrics.FAILED);
+            throw e;
+        }
+    }
+    
+    private Optional<Reprocessed> refreshExtraction(Contract contract) throws IOException {
+        String extractorVersion = extractionCache.getExtractorVersion();
+        // Contracts without textLength (or still holding the inline copy) were extracted from text
+        // truncated at 5000 characters, so they are stale whatever their versions say
+        if (contract.getContentHash() != null
+                && contract.getTextLength() != null
+                && contract.getExtractedText() == null
+                && extractorVersion.equals(contract.getExtractorVersion())
+                && "auto_extracted".equals(contract.getExtractionStatus())
+                && Integer.valueOf(SearchIndexService.INDEX_VERSION).equals(contract.getSearchIndexVersion())) {
+            return Optional.empty();
+        }
         
-        // Re-extract variables
-        ContractVariables variables = extractVariablesWithAI(extractedText);
+        String extractedText;
+        ContractVariables variables;
+        Optional<ExtractionResult> cached = findCachedExtraction(contract);
+        if (cached.isPresent()) {
+            extractedText = cached.get().getText();
+            variables = cached.get().getVariables();
+        } else {
+            // Read file and extract text again
+            extractedText = readText(contract, PipelineMetrics.REPROCESS);
+            
+            // Re-extract variables
+            variables = extractVariables(extractedText, PipelineMetrics.REPROCESS);
+            cacheExtraction(contract, extractedText, variables);
+        }
         
         // Update contract
         contract.setVariables(variables);
         contract.setExtractionStatus("auto_extracted");
-        contract.setExtractedText(extractedText.length() > 5000 ? extractedText.substring(0, 5000) : extractedText);
-        
-        return contractRepository.save(contract);
+        contract.setExtractorVersion(extractorVersion);
+        contract.setExtractedText(null);
+        contract.setTextLength(extractedText.length());
+        return Optional.of(new Reprocessed(contract, extractedText,
+            searchIndexService.terms(contract, extractedText), SimilarityService.signature(extractedText)));
     }
     
-    public Contract updateContract(String contractId, Contract updatedContract) {
-        Optional<Contract> contractOpt = contractRepository.findById(contractId);
-        if (contractOpt.isEmpty()) {
-            throw new RuntimeException("Contract not found");
+    // Writes a batch of applyReprocess results: texts, postings, signatures and finally the contracts,
+    // each in one unordered bulk operation
+    public void saveReprocessed(List<Reprocessed> batch) {
+        if (batch.isEmpty()) {
+            return;
         }
-        
-        Contract contract = contractOpt.get();
-        
-        // Update only the variables and extraction status
-        if (updatedContract.getVariables() != null) {
-            contract.setVariables(updatedContract.getVariables());
-            contract.setExtractionStatus("manually_edited");
+        writeReprocessedData(batch);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Contract.class);
+        for (Reprocessed reprocessed : batch) {
+            Contract contract = reprocessed.getContract();
+            bulk.updateOne(Query.query(Criteria.where("_id").is(contract.getId())), reprocessUpdate(contract));
+        }
+        pipelineMetrics.run(PipelineMetrics.REPROCESS, PipelineMetrics.SAVE, bulk::execute);
+        for (Reprocessed reprocessed : batch) {
+            contractCache.invalidate(reprocessed.getContract());
+            expiryAlertScheduler.track(reprocessed.getContract());
         }
-        
-        return contractRepository.save(contract);
     }
     
-    private String extractTextFromDocxBytes(byte[] fileBytes) throws IOException {
-        StringBuilder text = new StringBuilder();
-        try (XWPFDocument document = new XWPFDocument(new java.io.ByteArrayInputStream(fileBytes))) {
-            for (XWPFParagraph paragraph : document.getParagraphs()) {
-                text.append(paragraph.getText()).append("\n");
-            }
+    // Everything but the contract documents, so a contract is only marked current once its side data is stored
+    private void writeReprocessedData(List<Reprocessed> batch) {
+        List<Contract> contracts = new ArrayList<>(batch.size());
+        List<ContractTerm> terms = new ArrayList<>();
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, int[]> signatures = new LinkedHashMap<>();
+        for (Reprocessed reprocessed : batch) {
+            String contractId = reprocessed.getContract().getId();
+            contracts.add(reprocessed.getContract());
+            terms.addAll(reprocessed.getTerms());
+            texts.put(contractId, reprocessed.getText());
+            signatures.put(contractId, reprocessed.getSignature());
         }
-        return text.toString();
+        pipelineMetrics.run(PipelineMetrics.REPROCESS, PipelineMetrics.TEXT_SAVE, () -> contractTextStore.saveAll(texts));
+        pipelineMetrics.run(PipelineMetrics.REPROCESS, PipelineMetrics.INDEX, () -> {
+            searchIndexService.indexAll(contracts, terms);
+            similarityService.indexAll(signatures);
+        });
     }
     
-    private String extractTextFromDocx(MultipartFile file) throws IOException {
-        StringBuilder text = new StringBuilder();
-        try (XWPFDocument document = new XWPFDocument(file.getInputStream())) {
-            for (XWPFParagraph paragraph : document.getParagraphs()) {
-                text.append(paragraph.getText()).append("\n");
-            }
+    // The fields applyReprocess refreshes
+    private static Update reprocessUpdate(Contract contract) {
+        return new Update()
+            .set("variables", contract.getVariables())
+            .set("extractionStatus", contract.getExtractionStatus())
+            .set("extractorVersion", contract.getExtractorVersion())
+            .set("textLength", contract.getTextLength())
+            .unset("extractedText")
+            .set("searchIndexVersion", contract.getSearchIndexVersion());
+    }
+    
+    // Applies a targeted update and returns the contract as stored afterwards
+    private Contract applyUpdate(String contractId, Update update) {
+        Contract updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(contractId)), update,
+            FindAndModifyOptions.options().returnNew(true), Contract.class);
+        if (updated == null) {
+            throw new RuntimeException("Contract not found");
         }
-        return text.toString();
+        return updated;
     }
     
-    private ContractVariables extractVariablesWithAI(String text) {
-        ContractVariables variables = new ContractVariables();
-        
-        // Enhanced contract type detection
-        String contractType = "Unknown";
-        String textLower = text.toLowerCase();
-        
-        Map<String, String[]> contractPatterns = new HashMap<>();
-        contractPatterns.put("Service Agreement", new String[]{"service agreement", "services agreement", "consulting agreement"});
-        contractPatterns.put("Employment Contract", new String[]{"employment agreement", "employment contract", "job offer"});
-        contractPatterns.put("Lease Agreement", new String[]{"lease agreement", "rental agreement", "tenancy agreement"});
-        contractPatterns.put("Non-Disclosure Agreement", new String[]{"non-disclosure", "nda", "confidentiality agreement"});
-        
-        for (Map.Entry<String, String[]> entry : contractPatterns.entrySet()) {
-            for (String pattern : entry.getValue()) {
-                if (textLower.contains(pattern)) {
-                    contractType = entry.getKey();
-                    break;
-                }
-            }
-            if (!contractType.equals("Unknown")) break;
+    public Contract updateContract(String contractId, Contract updatedContract) {
+        Optional<Contract> contractOpt = getContract(contractId);
+        if (contractOpt.isEmpty()) {
+            throw new RuntimeException("Contract not found");
         }
         
-        variables.setContractType(contractType);
-        
-        // Extract party names
-        List<String> partyNames = new ArrayList<>();
-        Pattern partyPattern = Pattern.compile("between\\s+([A-Z][a-zA-Z\\s&.,Inc]+?)\\s+(?:and|&)\\s+([A-Z][a-zA-Z\\s&.,Inc]+?)(?:\\s|,|\\.|$)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = partyPattern.matcher(text);
-        while (matcher.find()) {
-            partyNames.add(matcher.group(1).trim());
-            partyNames.add(matcher.group(2).trim());
-        }
-        variables.setPartyNames(partyNames);
+        Contract contract = contractOpt.get();
         
-        // Extract amounts
-        Pattern amountPattern = Pattern.compile("[\\$£€¥]\\s*[\\d,]+(?:\\.\\d{2})?");
-        matcher = amountPattern.matcher(text);
-        if (matcher.find()) {
-            variables.setAmount(matcher.group());
+        // Update only the variables and extraction status
+        if (updatedContract.getVariables() == null) {
+            return contract;
         }
+        contract.setVariables(updatedContract.getVariables());
+        variableExtractor.normalizeDates(contract.getVariables());
+        contract.setExtractionStatus("manually_edited");
+        searchIndexService.reindexMetadata(contract);
         
-        // Extract dates
-        Pattern datePattern = Pattern.compile("\\b\\d{1,2}[/-]\\d{1,2}[/-]\\d{4}\\b|\\b(?:January|February|March|April|May|June|July|August|September|October|November|December)\\s+\\d{1,2},?\\s+\\d{4}\\b", Pattern.CASE_INSENSITIVE);
-        matcher = datePattern.matcher(text);
-        List<String> dates = new ArrayList<>();
-        while (matcher.find()) {
-            dates.add(matcher.group());
-        }
-        if (!dates.isEmpty()) {
-            variables.setDate(dates.get(0));
-            if (dates.size() > 1) {
-                variables.setExpirationDate(dates.get(1));
-            }
-        }
+        Contract saved = applyUpdate(contractId, new Update()
+            .set("variables", contract.getVariables())
+            .set("extractionStatus", contract.getExtractionStatus()));
+        contractCache.invalidate(saved);
+        expiryAlertScheduler.track(saved);
+        return saved;
+    }
+    
+    public ContractVariables extractVariablesWithAI(String text) {
+        return variableExtractor.extract(text);
+    }
+    
+    // One contract re-extracted by applyReprocess, with everything saveReprocessed writes for it
+    public static class Reprocessed {
+        private final Contract contract;
+        private final String text;
+        private final List<ContractTerm> terms;
+        private final int[] signature;
         
-        // Extract signatures
-        List<String> signatures = new ArrayList<>();
-        Pattern signaturePattern = Pattern.compile("Signature:\\s*([A-Z][a-zA-Z\\s]+?)(?:\\n|$)", Pattern.CASE_INSENSITIVE);
-        matcher = signaturePattern.matcher(text);
-        while (matcher.find()) {
-            signatures.add(matcher.group(1).trim());
+        private Reprocessed(Contract contract, String text, List<ContractTerm> terms, int[] signature) {
+            this.contract = contract;
+            this.text = text;
+            this.terms = terms;
+            this.signature = signature;
         }
-        variables.setSignatures(signatures);
-        
-        // Other fields
-        Map<String, Object> otherFields = new HashMap<>();
-        otherFields.put("text_length", text.length());
-        otherFields.put("extraction_method", "enhanced_java_ai");
-        variables.setOtherFields(otherFields);
         
-        return variables;
+        public Contract getContract() { return contract; }
+        public String getText() { return text; }
+        public List<ContractTerm> getTerms() { return terms; }
+        public int[] getSignature() { return signature; }
     }
 }
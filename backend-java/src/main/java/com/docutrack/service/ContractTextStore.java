@@ -0,0 +1,108 @@
+package com.docutrack.service;
+
+import com.docutrack.model.ContractText;
+import com.docutrack.repository.ContractTextRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Side store for the complete extracted text of each contract. Contract text is highly repetitive,
+// so even the fastest deflate level shrinks it several times; it is only read when a caller asks
+// for the text, never as part of listings or lookups.
+@Service
+public class ContractTextStore {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private ContractTextRepository contractTextRepository;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    public void save(String contractId, String text) {
+        ContractText stored = new ContractText();
+        stored.setId(contractId);
+        stored.setCodec(ContractText.CODEC_DEFLATE);
+        stored.setLength(text.length());
+        stored.setCompressedText(compress(text));
+        stored.setUpdatedAt(LocalDateTime.now());
+        contractTextRepository.save(stored);
+    }
+    
+    // Stores the texts of many contracts in one unordered bulk write
+    public void saveAll(Map<String, String> textsById) {
+        if (textsById.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContractText.class);
+        textsById.forEach((contractId, text) -> bulk.upsert(
+            Query.query(Criteria.where("_id").is(contractId)),
+            new Update()
+                .set("codec", ContractText.CODEC_DEFLATE)
+                .set("length", text.length())
+                .set("compressedText", compress(text))
+                .set("updatedAt", now)));
+        bulk.execute();
+    }
+    
+    public Optional<String> load(String contractId) {
+        return contractTextRepository.findById(contractId).map(stored -> decompress(stored.getCompressedText()));
+    }
+    
+    public void delete(String contractId) {
+        contractTextRepository.deleteById(contractId);
+    }
+    
+    static byte[] compress(String text) {
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    static String decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Stored contract text is truncated");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Stored contract text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
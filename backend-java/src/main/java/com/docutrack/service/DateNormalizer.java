@@ -0,0 +1,68 @@
+package com.docutrack.service;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Turns the date strings matched during extraction ("March 5, 2024", "05/03/2024", "5-3-2024")
+// into LocalDate values. Numeric dates are read in the configured order (MDY or DMY) unless only
+// the other order yields a valid month.
+public class DateNormalizer {
+    
+    private static final Pattern MONTH_NAME = Pattern.compile(
+        "(January|February|March|April|May|June|July|August|September|October|November|December)\\s+(\\d{1,2}),?\\s+(\\d{4})",
+        Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMERIC = Pattern.compile("(\\d{1,2})[/-](\\d{1,2})[/-](\\d{4})");
+    
+    private final boolean dayFirst;
+    
+    public DateNormalizer(String numericDateOrder) {
+        this.dayFirst = "DMY".equalsIgnoreCase(numericDateOrder);
+    }
+    
+    // Null when the value is missing or not a recognisable calendar date
+    public LocalDate normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            Matcher named = MONTH_NAME.matcher(value);
+            if (named.find()) {
+                int month = monthOf(named.group(1));
+                return LocalDate.of(Integer.parseInt(named.group(3)), month, Integer.parseInt(named.group(2)));
+            }
+            
+            Matcher numeric = NUMERIC.matcher(value);
+            if (numeric.find()) {
+                int first = Integer.parseInt(numeric.group(1));
+                int second = Integer.parseInt(numeric.group(2));
+                int year = Integer.parseInt(numeric.group(3));
+                boolean swap = dayFirst ? second > 12 && first <= 12 : first > 12 && second <= 12;
+                boolean readDayFirst = dayFirst != swap;
+                return readDayFirst ? LocalDate.of(year, second, first) : LocalDate.of(year, first, second);
+            }
+        } catch (DateTimeException e) {
+            // e.g. February 30
+        }
+        return null;
+    }
+    
+    private static int monthOf(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "january": return 1;
+            case "february": return 2;
+            case "march": return 3;
+            case "april": return 4;
+            case "may": return 5;
+            case "june": return 6;
+            case "july": return 7;
+            case "august": return 8;
+            case "september": return 9;
+            case "october": return 10;
+            case "november": return 11;
+            default: return 12;
+        }
+    }
+}
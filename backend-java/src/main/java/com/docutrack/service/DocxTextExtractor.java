@@ -0,0 +1,159 @@
+package com.docutrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Pulls plain text out of a DOCX package by streaming its WordprocessingML parts
+// through StAX, without building a document object model.
+@Component
+public class DocxTextExtractor {
+    
+    // Bump whenever the produced text changes for the same input
+    private static final int VERSION = 1;
+    
+    private static final String WORDML_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String MARKUP_COMPAT_NS = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final Pattern HEADER_FOOTER_PART = Pattern.compile("word/(header|footer)\\d*\\.xml");
+    
+    // Buffers that grew past this are dropped after use so idle workers don't pin large arrays
+    private static final int RETAINED_BUFFER_CHARS = 256 * 1024;
+    
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+    
+    private final XMLInputFactory xmlInputFactory;
+    
+    @Value("${docutrack.extraction.max-text-chars:2000000}")
+    private int maxTextChars;
+    
+    public DocxTextExtractor() {
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+    
+    public String getFingerprint() {
+        return "docx-stax/" + VERSION + "/max-text-chars=" + maxTextChars;
+    }
+    
+    public String extract(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return extract(in);
+        }
+    }
+    
+    // Body text first, then header and footer text, one paragraph per line, capped at max-text-chars
+    public String extract(InputStream in) throws IOException {
+        StringBuilder body = BUFFER.get();
+        body.setLength(0);
+        StringBuilder headersAndFooters = new StringBuilder();
+        boolean documentFound = false;
+        
+        try {
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in, 64 * 1024));
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (DOCUMENT_PART.equals(name)) {
+                    readPart(zip, body, maxTextChars);
+                    documentFound = true;
+                } else if (HEADER_FOOTER_PART.matcher(name).matches()) {
+                    readPart(zip, headersAndFooters, maxTextChars);
+                }
+            }
+            
+            if (!documentFound) {
+                throw new IOException("Not a DOCX document: " + DOCUMENT_PART + " is missing");
+            }
+            
+            int room = maxTextChars - body.length();
+            if (room > 0 && headersAndFooters.length() > 0) {
+                body.append(headersAndFooters, 0, Math.min(room, headersAndFooters.length()));
+            }
+            return body.toString();
+        } finally {
+            if (body.capacity() > RETAINED_BUFFER_CHARS) {
+                BUFFER.remove();
+            } else {
+                body.setLength(0);
+            }
+        }
+    }
+    
+    private void readPart(InputStream part, StringBuilder out, int limit) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(new FilterInputStream(part) {
+                @Override
+                public void close() {
+                    // The JDK reader closes its source; the zip stream must stay open for the next entry
+                }
+            });
+            boolean inText = false;
+            // Alternate-content fallbacks repeat the text of their choice branch
+            int fallbackDepth = 0;
+            
+            while (reader.hasNext() && out.length() < limit) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String ns = reader.getNamespaceURI();
+                    String local = reader.getLocalName();
+                    if (MARKUP_COMPAT_NS.equals(ns) && "Fallback".equals(local)) {
+                        fallbackDepth++;
+                    } else if (fallbackDepth == 0 && WORDML_NS.equals(ns)) {
+                        switch (local) {
+                            case "t" -> inText = true;
+                            case "tab" -> out.append('\t');
+                            case "br", "cr" -> out.append('\n');
+                            default -> { }
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String ns = reader.getNamespaceURI();
+                    String local = reader.getLocalName();
+                    if (MARKUP_COMPAT_NS.equals(ns) && "Fallback".equals(local)) {
+                        fallbackDepth--;
+                    } else if (fallbackDepth == 0 && WORDML_NS.equals(ns)) {
+                        if ("t".equals(local)) {
+                            inText = false;
+                        } else if ("p".equals(local)) {
+                            out.append('\n');
+                        }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    int length = Math.min(reader.getTextLength(), limit - out.length());
+                    out.append(reader.getTextCharacters(), reader.getTextStart(), length);
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed DOCX part: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Nothing to release
+                }
+            }
+        }
+        if (out.length() > limit) {
+            out.setLength(limit);
+        }
+    }
+}
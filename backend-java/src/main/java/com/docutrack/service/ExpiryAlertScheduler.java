@@ -0,0 +1,119 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Raises a ContractExpiringEvent when a contract comes within notice-days of its expiration date.
+// Only alerts due within the next lookahead-days are held in memory, ordered by alert date, so each
+// check just looks at the head of the set. A daily reload pulls the next window from the
+// variables.expiresOn index, and contracts saved in between are added as they are written.
+@Component
+public class ExpiryAlertScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpiryAlertScheduler.class);
+    
+    private static final class PendingAlert {
+        final LocalDate alertOn;
+        final LocalDate expiresOn;
+        final String contractId;
+        
+        PendingAlert(LocalDate alertOn, LocalDate expiresOn, String contractId) {
+            this.alertOn = alertOn;
+            this.expiresOn = expiresOn;
+            this.contractId = contractId;
+        }
+    }
+    
+    private final ConcurrentSkipListSet<PendingAlert> pending = new ConcurrentSkipListSet<>(
+        Comparator.comparing((PendingAlert alert) -> alert.alertOn)
+            .thenComparing(alert -> alert.contractId)
+            .thenComparing(alert -> alert.expiresOn));
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @Value("${docutrack.expiry.notice-days:30}")
+    private int noticeDays;
+    
+    @Value("${docutrack.expiry.lookahead-days:7}")
+    private int lookaheadDays;
+    
+    // Called after every write that may have changed a contract's expiration date
+    public void track(Contract contract) {
+        LocalDate expiresOn = contract.getVariables() != null ? contract.getVariables().getExpiresOn() : null;
+        LocalDate today = LocalDate.now();
+        if (expiresOn == null || expiresOn.isBefore(today) || expiresOn.equals(contract.getExpiryAlertedFor())) {
+            return;
+        }
+        LocalDate alertOn = expiresOn.minusDays(noticeDays);
+        if (alertOn.isAfter(today.plusDays(lookaheadDays))) {
+            // Picked up by a later reload
+            return;
+        }
+        pending.add(new PendingAlert(alertOn, expiresOn, contract.getId()));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${docutrack.expiry.reload-cron:0 5 0 * * *}")
+    public void reload() {
+        LocalDate today = LocalDate.now();
+        Query query = new Query(Criteria.where("variables.expiresOn").gte(today).lte(today.plusDays(noticeDays + lookaheadDays)));
+        query.fields().include("_id", "variables.expiresOn", "expiryAlertedFor");
+        
+        pending.clear();
+        for (Contract contract : mongoTemplate.find(query, Contract.class)) {
+            track(contract);
+        }
+        log.debug("Tracking {} upcoming expiry alerts", pending.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${docutrack.expiry.check-ms:60000}")
+    public void raiseDueAlerts() {
+        LocalDate today = LocalDate.now();
+        while (!pending.isEmpty() && !pending.first().alertOn.isAfter(today)) {
+            PendingAlert alert = pending.pollFirst();
+            if (alert == null) {
+                break;
+            }
+            
+            // Claims the alert, so it is raised once even with several instances running; entries
+            // for deleted contracts or changed dates simply find nothing to claim
+            Contract claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(alert.contractId)
+                    .and("variables.expiresOn").is(alert.expiresOn)
+                    .and("expiryAlertedFor").ne(alert.expiresOn)),
+                Update.update("expiryAlertedFor", alert.expiresOn),
+                FindAndModifyOptions.options().returnNew(true),
+                Contract.class);
+            if (claimed != null) {
+                contractCache.invalidate(claimed);
+                log.info("Contract {} ({}) expires on {}", claimed.getId(), claimed.getOriginalFilename(), alert.expiresOn);
+                eventPublisher.publishEvent(new ContractExpiringEvent(
+                    claimed.getId(), claimed.getUserId(), claimed.getOriginalFilename(), alert.expiresOn));
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractVariables;
+import com.docutrack.model.MigrationCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Fills variables.effectiveOn / expiresOn on contracts extracted before dates were normalized.
+// Walks the collection in _id order in the background and checkpoints the last id after every
+// batch, so a restart continues where it stopped.
+@Service
+public class ExpiryDateBackfillService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ExpiryDateBackfillService.class);
+    
+    private static final String MIGRATION_ID = "contract-date-normalization";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private VariableExtractor variableExtractor;
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @Autowired
+    private ExpiryAlertScheduler expiryAlertScheduler;
+    
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+    
+    @Value("${docutrack.migration.batch-size:500}")
+    private int batchSize;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDates() {
+        MigrationCheckpoint checkpoint = mongoTemplate.findById(MIGRATION_ID, MigrationCheckpoint.class);
+        if (checkpoint != null && MigrationCheckpoint.COMPLETED.equals(checkpoint.getStatus())) {
+            return;
+        }
+        maintenanceExecutor.execute(() -> run(checkpoint != null ? checkpoint.getLastId() : null));
+    }
+    
+    private void run(String lastId) {
+        mongoTemplate.upsert(
+            Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+            new Update()
+                .set("status", MigrationCheckpoint.RUNNING)
+                .setOnInsert("migrated", 0L)
+                .setOnInsert("startedAt", LocalDateTime.now()),
+            MigrationCheckpoint.class);
+        
+        long migrated = 0;
+        try {
+            while (true) {
+                Criteria criteria = new Criteria().orOperator(
+                    Criteria.where("variables.date").ne(null),
+                    Criteria.where("variables.expirationDate").ne(null));
+                if (lastId != null) {
+                    criteria = new Criteria().andOperator(Criteria.where("_id").gt(lastId), criteria);
+                }
+                Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+                query.fields().include("_id", "userId", "variables", "expiryAlertedFor");
+                List<Contract> batch = mongoTemplate.find(query, Contract.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                
+                long updated = 0;
+                for (Contract contract : batch) {
+                    ContractVariables variables = contract.getVariables();
+                    variableExtractor.normalizeDates(variables);
+                    // Skipped if the dates were edited meanwhile; that write normalized them already
+                    long modified = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(contract.getId())
+                            .and("variables.date").is(variables.getDate())
+                            .and("variables.expirationDate").is(variables.getExpirationDate())),
+                        new Update()
+                            .set("variables.effectiveOn", variables.getEffectiveOn())
+                            .set("variables.expiresOn", variables.getExpiresOn()),
+                        Contract.class).getModifiedCount();
+                    if (modified > 0) {
+                        contractCache.invalidate(contract);
+                        expiryAlertScheduler.track(contract);
+                        updated++;
+                    }
+                }
+                
+                migrated += updated;
+                lastId = batch.get(batch.size() - 1).getId();
+                mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                    new Update().inc("migrated", updated).set("lastId", lastId).set("lastBatchAt", LocalDateTime.now()),
+                    MigrationCheckpoint.class);
+            }
+            
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                new Update().set("status", MigrationCheckpoint.COMPLETED).set("completedAt", LocalDateTime.now()),
+                MigrationCheckpoint.class);
+            log.info("Date normalization backfill updated {} contracts", migrated);
+        } catch (Exception e) {
+            log.warn("Date normalization backfill stopped after {} contracts, resuming on next startup: {}", migrated, e.getMessage());
+        }
+    }
+}
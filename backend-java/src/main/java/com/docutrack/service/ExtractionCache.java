@@ -0,0 +1,64 @@
+package com.docutrack.service;
+
+import com.docutrack.model.ContractText;
+import com.docutrack.model.ContractVariables;
+import com.docutrack.model.ExtractionResult;
+import com.docutrack.repository.ExtractionResultRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Persistent cache of parse and extraction results, keyed by file content hash plus a fingerprint
+// of everything that shapes the output (text extractor settings and extraction rules). Changing
+// the rules changes the fingerprint, so only results produced by the old rules stop matching.
+// Text is kept compressed with the same codec as ContractTextStore.
+@Service
+public class ExtractionCache {
+    
+    @Autowired
+    private ExtractionResultRepository extractionResultRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final String extractorVersion;
+    
+    public ExtractionCache(DocxTextExtractor docxTextExtractor, VariableExtractor variableExtractor) {
+        String fingerprint = docxTextExtractor.getFingerprint() + "\n" + variableExtractor.getFingerprint();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            extractorVersion = HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    public String getExtractorVersion() {
+        return extractorVersion;
+    }
+    
+    public Optional<ExtractionResult> find(String contentHash) {
+        if (contentHash == null) {
+            return Optional.empty();
+        }
+        Optional<ExtractionResult> result = extractionResultRepository.findById(ExtractionResult.key(contentHash, extractorVersion))
+            // Entries written before the text was compressed carry no compressed text; parse again
+            .filter(cached -> ContractText.CODEC_DEFLATE.equals(cached.getCodec()) && cached.getCompressedText() != null);
+        result.ifPresent(cached -> cached.setText(ContractTextStore.decompress(cached.getCompressedText())));
+        meterRegistry.counter("docutrack.extraction.cache", "result", result.isPresent() ? "hit" : "miss").increment();
+        return result;
+    }
+    
+    public void put(String contentHash, String text, ContractVariables variables) {
+        if (contentHash != null) {
+            extractionResultRepository.save(new ExtractionResult(contentHash, extractorVersion,
+                ContractText.CODEC_DEFLATE, ContractTextStore.compress(text), variables));
+        }
+    }
+}
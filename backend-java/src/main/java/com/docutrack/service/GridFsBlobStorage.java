@@ -0,0 +1,337 @@
+package com.docutrack.service;
+
+import com.docutrack.model.MigrationCheckpoint;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Content in MongoDB, laid out as a GridFS bucket (<bucket>.files / <bucket>.chunks) with the key
+// as filename, so every node sharing the database sees every upload. Chunks are written and read
+// by several transfer threads at once; the files document is inserted last, so a half-written
+// upload is never visible. Filenames are unique, so two nodes storing the same key at once end up
+// with one copy; the unique index is built once, by a checkpointed migration, after removing the
+// duplicates stored before it existed.
+@Component
+@ConditionalOnProperty(name = "docutrack.storage.backend", havingValue = "gridfs")
+public class GridFsBlobStorage implements BlobStorage {
+    
+    private static final Logger log = LoggerFactory.getLogger(GridFsBlobStorage.class);
+    
+    private final MongoTemplate mongoTemplate;
+    private final String migrationId;
+    private final MongoCollection<Document> files;
+    private final MongoCollection<Document> chunks;
+    private final int chunkSize;
+    private final int parallelism;
+    private final TaskExecutor transferExecutor;
+    private final TaskExecutor maintenanceExecutor;
+    
+    public GridFsBlobStorage(MongoTemplate mongoTemplate,
+                             @Value("${docutrack.storage.gridfs.bucket:blob_files}") String bucket,
+                             @Value("${docutrack.storage.gridfs.chunk-size:1MB}") DataSize chunkSize,
+                             @Value("${docutrack.storage.gridfs.parallelism:4}") int parallelism,
+                             @Qualifier("blobTransferExecutor") TaskExecutor transferExecutor,
+                             @Qualifier("maintenanceExecutor") TaskExecutor maintenanceExecutor) {
+        this.mongoTemplate = mongoTemplate;
+        this.migrationId = "gridfs-unique-filenames:" + bucket;
+        this.files = mongoTemplate.getCollection(bucket + ".files");
+        this.chunks = mongoTemplate.getCollection(bucket + ".chunks");
+        this.chunkSize = (int) chunkSize.toBytes();
+        this.parallelism = Math.max(1, parallelism);
+        this.transferExecutor = transferExecutor;
+        this.maintenanceExecutor = maintenanceExecutor;
+        
+        // The indexes GridFS drivers expect
+        files.createIndex(Indexes.ascending("filename", "uploadDate"));
+        chunks.createIndex(Indexes.ascending("files_id", "n"), new IndexOptions().unique(true));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void enforceUniqueKeys() {
+        MigrationCheckpoint checkpoint = mongoTemplate.findById(migrationId, MigrationCheckpoint.class);
+        if (checkpoint != null && MigrationCheckpoint.COMPLETED.equals(checkpoint.getStatus())) {
+            return;
+        }
+        maintenanceExecutor.execute(this::migrateToUniqueKeys);
+    }
+    
+    // Until this completes, a key stored twice concurrently keeps both copies and reads use the newest
+    private void migrateToUniqueKeys() {
+        mongoTemplate.upsert(
+            Query.query(Criteria.where("_id").is(migrationId)),
+            new Update()
+                .set("status", MigrationCheckpoint.RUNNING)
+                .setOnInsert("migrated", 0L)
+                .setOnInsert("startedAt", LocalDateTime.now()),
+            MigrationCheckpoint.class);
+        try {
+            long removed = removeDuplicateKeys();
+            files.createIndex(Indexes.ascending("filename"), new IndexOptions().unique(true));
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(migrationId)),
+                new Update().inc("migrated", removed).set("status", MigrationCheckpoint.COMPLETED)
+                    .set("completedAt", LocalDateTime.now()),
+                MigrationCheckpoint.class);
+            if (removed > 0) {
+                log.info("GridFS migration removed {} duplicate copies", removed);
+            }
+        } catch (Exception e) {
+            // A key stored twice between the pass and the index build fails the build; the next startup retries
+            log.warn("GridFS unique key migration stopped, resuming on next startup: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void put(String key, Path source) throws IOException {
+        if (exists(key)) {
+            return;
+        }
+        
+        ObjectId fileId = new ObjectId();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        // Bounds the chunks held in memory while their inserts are in flight
+        Semaphore permits = new Semaphore(parallelism);
+        long length;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            length = channel.size();
+            for (int n = 0; (long) n * chunkSize < length; n++) {
+                long position = (long) n * chunkSize;
+                byte[] data = new byte[(int) Math.min(chunkSize, length - position)];
+                readFully(channel, ByteBuffer.wrap(data), position);
+                
+                permits.acquireUninterruptibly();
+                Document chunk = new Document("files_id", fileId).append("n", n).append("data", new Binary(data));
+                writes.add(CompletableFuture
+                    .runAsync(() -> {
+                        if (!aborted.get()) {
+                            chunks.insertOne(chunk);
+                        }
+                    }, transferExecutor)
+                    .whenComplete((result, error) -> permits.release()));
+            }
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        } catch (IOException | RuntimeException e) {
+            // Cancelling would not stop an insert already running, so let every write settle (queued
+            // ones skip their insert) before removing what they stored
+            aborted.set(true);
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).handle((result, error) -> null).join();
+            chunks.deleteMany(Filters.eq("files_id", fileId));
+            if (e instanceof CompletionException && e.getCause() != null) {
+                throw new IOException("GridFS upload failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            throw e;
+        }
+        
+        try {
+            files.insertOne(new Document("_id", fileId)
+                .append("filename", key)
+                .append("length", length)
+                .append("chunkSize", chunkSize)
+                .append("uploadDate", new Date()));
+        } catch (MongoWriteException e) {
+            chunks.deleteMany(Filters.eq("files_id", fileId));
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            // Stored concurrently by another upload; keys are content hashes, so that copy is identical
+        }
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return files.find(Filters.eq("filename", key)).projection(Projections.include("_id")).first() != null;
+    }
+    
+    @Override
+    public Optional<BlobInfo> stat(String key) {
+        Document file = latest(key);
+        if (file == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobInfo(
+            file.get("length", Number.class).longValue(), file.getDate("uploadDate").getTime(), null));
+    }
+    
+    @Override
+    public InputStream open(String key, long offset) throws IOException {
+        Document file = latest(key);
+        if (file == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ChunkInputStream(file.getObjectId("_id"), file.get("length", Number.class).longValue(),
+            file.getInteger("chunkSize"), offset);
+    }
+    
+    @Override
+    public boolean rename(String from, String to) {
+        try {
+            return files.updateOne(Filters.eq("filename", from), Updates.set("filename", to)).getModifiedCount() > 0;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            // The target was stored again in the meantime; this copy is no longer needed
+            delete(from);
+            return true;
+        }
+    }
+    
+    @Override
+    public void delete(String key) {
+        for (Document file : files.find(Filters.eq("filename", key)).projection(Projections.include("_id"))) {
+            // Files document first, so readers never find a file with missing chunks
+            files.deleteOne(Filters.eq("_id", file.getObjectId("_id")));
+            chunks.deleteMany(Filters.eq("files_id", file.getObjectId("_id")));
+        }
+    }
+    
+    // Before filenames were unique, concurrent uploads of the same content could store a key twice.
+    // Keep the newest copy of each so the unique index can be built. Returns the copies removed.
+    private long removeDuplicateKeys() {
+        long removed = 0;
+        List<Bson> pipeline = List.of(
+            Aggregates.group("$filename", Accumulators.sum("count", 1)),
+            Aggregates.match(Filters.gt("count", 1)));
+        for (Document duplicate : files.aggregate(pipeline)) {
+            String key = duplicate.getString("_id");
+            ObjectId keep = latest(key).getObjectId("_id");
+            for (Document file : files.find(Filters.and(Filters.eq("filename", key), Filters.ne("_id", keep)))
+                    .projection(Projections.include("_id"))) {
+                files.deleteOne(Filters.eq("_id", file.getObjectId("_id")));
+                chunks.deleteMany(Filters.eq("files_id", file.getObjectId("_id")));
+                removed++;
+            }
+        }
+        return removed;
+    }
+    
+    private Document latest(String key) {
+        return files.find(Filters.eq("filename", key)).sort(Sorts.descending("uploadDate")).first();
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("File shrank while it was being stored");
+            }
+        }
+    }
+    
+    // Reads the chunks in order while the next few are already being fetched
+    private final class ChunkInputStream extends InputStream {
+        private final ObjectId fileId;
+        private final int chunkCount;
+        private final ArrayDeque<CompletableFuture<byte[]>> prefetched = new ArrayDeque<>();
+        private int nextToFetch;
+        private int skipInFirstChunk;
+        private byte[] current = new byte[0];
+        private int position;
+        
+        ChunkInputStream(ObjectId fileId, long length, int fileChunkSize, long offset) {
+            this.fileId = fileId;
+            this.chunkCount = (int) ((length + fileChunkSize - 1) / fileChunkSize);
+            if (offset < length) {
+                this.nextToFetch = (int) (offset / fileChunkSize);
+                this.skipInFirstChunk = (int) (offset % fileChunkSize);
+            } else {
+                this.nextToFetch = chunkCount;
+            }
+            fillWindow();
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position >= current.length) {
+                if (prefetched.isEmpty()) {
+                    return -1;
+                }
+                try {
+                    current = prefetched.poll().join();
+                } catch (CompletionException e) {
+                    throw new IOException("GridFS read failed: " + e.getCause().getMessage(), e.getCause());
+                }
+                position = skipInFirstChunk;
+                skipInFirstChunk = 0;
+                fillWindow();
+            }
+            int count = Math.min(len, current.length - position);
+            System.arraycopy(current, position, buffer, off, count);
+            position += count;
+            return count;
+        }
+        
+        @Override
+        public void close() {
+            prefetched.forEach(fetch -> fetch.cancel(false));
+            prefetched.clear();
+        }
+        
+        private void fillWindow() {
+            while (prefetched.size() < parallelism && nextToFetch < chunkCount) {
+                int n = nextToFetch++;
+                prefetched.add(CompletableFuture.supplyAsync(() -> {
+                    Document chunk = chunks.find(Filters.and(Filters.eq("files_id", fileId), Filters.eq("n", n))).first();
+                    if (chunk == null) {
+                        throw new IllegalStateException("Chunk " + n + " of " + fileId + " is missing");
+                    }
+                    return chunk.get("data", Binary.class).getData();
+                }, transferExecutor));
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractVariables;
+import com.docutrack.model.ExtractionResult;
+import com.docutrack.model.IngestionFileStatus;
+import com.docutrack.model.IngestionJob;
+import com.docutrack.repository.ContractCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runs upload jobs on this node. Jobs in flight are kept in memory and every status change is
+// written through to the ingestion_jobs collection, so progress polls can land on any node.
+@Service
+public class IngestionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
+    
+    // How long an unfinished job is kept when the node running it stops before finishing it
+    private static final long ABANDONED_JOB_HOURS = 24;
+    
+    @Autowired
+    private ContractService contractService;
+    
+    @Autowired
+    private UploadAdmissionService uploadAdmission;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    @Qualifier("ingestionExecutor")
+    private ThreadPoolTaskExecutor ingestionExecutor;
+    
+    @Value("${docutrack.ingestion.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+    
+    // Jobs running on this node; finished ones are only kept in Mongo
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+    
+    // Throws AdmissionRejectedException when the node is over its ingestion budget or its workers'
+    // queue has no room for the files. The request thread only stages the files; it never runs the pipeline.
+    public IngestionJob submit(MultipartFile[] files, String userId) {
+        if (ingestionExecutor.getQueueCapacity() - ingestionExecutor.getQueueSize() < files.length) {
+            throw uploadAdmission.workersBusy();
+        }
+        long totalBytes = 0;
+        for (MultipartFile file : files) {
+            totalBytes += file.getSize();
+        }
+        UploadAdmissionService.Ticket ticket = uploadAdmission.admit(userId, totalBytes);
+        
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), userId);
+        
+        // Register every file before any worker starts so progress never reports a partial batch as done
+        for (MultipartFile file : files) {
+            job.getFiles().add(new IngestionFileStatus(file.getOriginalFilename(), file.getSize()));
+        }
+        job.setExpiresAt(job.getCreatedAt().plusHours(ABANDONED_JOB_HOURS));
+        try {
+            mongoTemplate.insert(job);
+        } catch (RuntimeException e) {
+            ticket.release(totalBytes);
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        
+        for (int i = 0; i < files.length; i++) {
+            int index = i;
+            
+            // Persist stage runs on the request thread: multipart parts are gone once the request completes
+            Contract staged;
+            try {
+                staged = contractService.storeUpload(files[i], userId);
+            } catch (Exception e) {
+                ticket.release(files[i].getSize());
+                fail(job, index, e);
+                continue;
+            }
+            
+            long size = files[i].getSize();
+            try {
+                ingestionExecutor.execute(() -> {
+                    try {
+                        process(job, index, staged);
+                    } finally {
+                        ticket.release(size);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // Another request filled the queue after the check above
+                contractService.discardUpload(staged);
+                ticket.release(size);
+                fail(job, index, new IllegalStateException("Ingestion queue is full, upload the file again later"));
+            }
+        }
+        
+        markCompletedIfFinished(job);
+        return job;
+    }
+    
+    // Only the job's owner sees it, with the same shared-owner rule as contracts
+    public Optional<IngestionJob> getJob(String jobId, String userId) {
+        IngestionJob job = jobs.get(jobId);
+        if (job == null) {
+            job = mongoTemplate.findById(jobId, IngestionJob.class);
+        }
+        if (job == null || !(userId.equals(job.getUserId()) || ContractCriteria.isShared(job.getUserId()))) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+    
+    private void process(IngestionJob job, int index, Contract staged) {
+        try {
+            String extractedText;
+            ContractVariables variables;
+            Optional<ExtractionResult> cached = contractService.findCachedExtraction(staged);
+            if (cached.isPresent()) {
+                extractedText = cached.get().getText();
+                variables = cached.get().getVariables();
+            } else {
+                uploadAdmission.acquireParseSlot();
+                try {
+                    setStatus(job, index, IngestionFileStatus.PARSING);
+                    extractedText = contractService.readText(staged, PipelineMetrics.UPLOAD);
+                    
+                    setStatus(job, index, IngestionFileStatus.EXTRACTING);
+                    variables = contractService.extractVariables(extractedText, PipelineMetrics.UPLOAD);
+                } finally {
+                    uploadAdmission.releaseParseSlot();
+                }
+                contractService.cacheExtraction(staged, extractedText, variables);
+            }
+            
+            setStatus(job, index, IngestionFileStatus.SAVING);
+            Contract saved = contractService.completeUpload(staged, extractedText, variables);
+            
+            IngestionFileStatus fileStatus = job.getFiles().get(index);
+            fileStatus.setContractId(saved.getId());
+            fileStatus.setStatus(IngestionFileStatus.COMPLETED);
+            persist(job, new Update()
+                .set("files." + index + ".contractId", saved.getId())
+                .set("files." + index + ".status", IngestionFileStatus.COMPLETED));
+        } catch (Exception e) {
+            contractService.discardUpload(staged);
+            fail(job, index, e);
+        }
+        markCompletedIfFinished(job);
+    }
+    
+    private void setStatus(IngestionJob job, int index, String status) {
+        job.getFiles().get(index).setStatus(status);
+        persist(job, new Update().set("files." + index + ".status", status));
+    }
+    
+    private void fail(IngestionJob job, int index, Exception e) {
+        IngestionFileStatus fileStatus = job.getFiles().get(index);
+        log.warn("Ingestion of {} in job {} failed: {}", fileStatus.getOriginalFilename(), job.getId(), e.getMessage());
+        fileStatus.setError(e.getMessage());
+        fileStatus.setStatus(IngestionFileStatus.FAILED);
+        persist(job, new Update()
+            .set("files." + index + ".error", e.getMessage())
+            .set("files." + index + ".status", IngestionFileStatus.FAILED));
+    }
+    
+    private void markCompletedIfFinished(IngestionJob job) {
+        synchronized (job) {
+            if (job.getCompletedAt() != null || !job.isFinished()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            job.setCompletedAt(now);
+            job.setExpiresAt(now.plusMinutes(jobRetentionMinutes));
+        }
+        persist(job, new Update().set("completedAt", job.getCompletedAt()).set("expiresAt", job.getExpiresAt()));
+        jobs.remove(job.getId());
+    }
+    
+    // Status writes are best effort: a failed write only delays what other nodes report
+    private void persist(IngestionJob job, Update update) {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())), update, IngestionJob.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not record progress of job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+}
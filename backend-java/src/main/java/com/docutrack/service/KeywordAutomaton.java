@@ -0,0 +1,132 @@
+package com.docutrack.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+// Aho-Corasick automaton over case-folded text. Each keyword carries the index of the rule
+// it belongs to; a scan reports the lowest rule index whose keyword occurs as a whole word,
+// optionally followed by a plural 's' ("Service Agreements" still matches "service agreement").
+// Transitions are compiled into a dense table, so scanning is one lookup per character
+// regardless of how many keywords are registered.
+public class KeywordAutomaton {
+    
+    public static final int NO_MATCH = -1;
+    
+    private final Map<Character, Integer> alphabet = new HashMap<>();
+    private final int[] asciiClasses = new int[128];
+    private final int[][] transitions;
+    // Per state: keyword lengths and rule indexes ending here, including those reached via failure links
+    private final int[][] outputLengths;
+    private final int[][] outputRules;
+    
+    public KeywordAutomaton(List<String> keywords, List<Integer> ruleIndexes) {
+        for (String keyword : keywords) {
+            for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                if (!alphabet.containsKey(c)) {
+                    alphabet.put(c, alphabet.size() + 1);
+                    if (c < 128) {
+                        asciiClasses[c] = alphabet.size();
+                    }
+                }
+            }
+        }
+        int width = alphabet.size() + 1;
+        
+        // Build the keyword trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<int[]>> outputs = new ArrayList<>();
+        trie.add(new int[width]);
+        outputs.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k).toLowerCase(Locale.ROOT);
+            if (keyword.isEmpty()) continue;
+            int state = 0;
+            for (char c : keyword.toCharArray()) {
+                int cls = alphabet.get(c);
+                if (trie.get(state)[cls] == 0) {
+                    trie.add(new int[width]);
+                    outputs.add(new ArrayList<>());
+                    trie.get(state)[cls] = trie.size() - 1;
+                }
+                state = trie.get(state)[cls];
+            }
+            outputs.get(state).add(new int[]{keyword.length(), ruleIndexes.get(k)});
+        }
+        
+        // Breadth-first pass turns the trie into a complete DFA and merges outputs along failure links
+        transitions = trie.toArray(new int[0][]);
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 1; cls < width; cls++) {
+            int next = transitions[0][cls];
+            if (next != 0) {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs.get(state).addAll(outputs.get(failure[state]));
+            for (int cls = 1; cls < width; cls++) {
+                int next = transitions[state][cls];
+                if (next != 0) {
+                    failure[next] = transitions[failure[state]][cls];
+                    queue.add(next);
+                } else {
+                    transitions[state][cls] = transitions[failure[state]][cls];
+                }
+            }
+        }
+        
+        outputLengths = new int[transitions.length][];
+        outputRules = new int[transitions.length][];
+        for (int state = 0; state < transitions.length; state++) {
+            List<int[]> out = outputs.get(state);
+            outputLengths[state] = out.stream().mapToInt(o -> o[0]).toArray();
+            outputRules[state] = out.stream().mapToInt(o -> o[1]).toArray();
+        }
+    }
+    
+    public int firstMatchingRule(CharSequence text) {
+        int best = NO_MATCH;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transitions[state][classOf(text.charAt(i))];
+            int[] lengths = outputLengths[state];
+            for (int o = 0; o < lengths.length; o++) {
+                int rule = outputRules[state][o];
+                if ((best == NO_MATCH || rule < best) && isWholeWord(text, i - lengths[o] + 1, i)) {
+                    best = rule;
+                    if (best == 0) return best;
+                }
+            }
+        }
+        return best;
+    }
+    
+    private int classOf(char c) {
+        char lower = Character.toLowerCase(c);
+        if (lower < 128) {
+            return asciiClasses[lower];
+        }
+        Integer cls = alphabet.get(lower);
+        return cls != null ? cls : 0;
+    }
+    
+    private static boolean isWholeWord(CharSequence text, int start, int end) {
+        if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return false;
+        }
+        int after = end + 1;
+        if (after < text.length() && Character.toLowerCase(text.charAt(after)) == 's') {
+            after++;
+        }
+        return after >= text.length() || !Character.isLetterOrDigit(text.charAt(after));
+    }
+}
@@ -0,0 +1,86 @@
+package com.docutrack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+// Content on the local filesystem under <blob-dir>/<h0h1>/<h2h3>/<key>. Only suitable for a single
+// node, or for several nodes sharing blob-dir on a network filesystem.
+@Component
+@ConditionalOnProperty(name = "docutrack.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStorage implements BlobStorage {
+    
+    @Value("${docutrack.storage.blob-dir:uploads/blobs}")
+    private String blobDir;
+    
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = pathFor(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Identical content landed concurrently
+        }
+    }
+    
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathFor(key));
+    }
+    
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        Path file = pathFor(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return Optional.of(new BlobInfo(attributes.size(), attributes.lastModifiedTime().toMillis(), file));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+    
+    @Override
+    public InputStream open(String key, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(pathFor(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return Channels.newInputStream(channel);
+    }
+    
+    @Override
+    public boolean rename(String from, String to) {
+        try {
+            Files.move(pathFor(from), pathFor(to), StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(pathFor(key));
+    }
+    
+    // Keys derived from a hash (such as parked copies) share its directory
+    private Path pathFor(String key) {
+        return Paths.get(blobDir, key.substring(0, 2), key.substring(2, 4), key);
+    }
+}
@@ -0,0 +1,123 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractTerm;
+import com.docutrack.model.MigrationCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Gives contracts stored without a userId an explicit owner, so the documents carry the owner the
+// queries match on instead of relying on a missing field. With the default legacy-owner they stay
+// shared (visible to every user); another value hands them to that user. Runs in the background in small batches; each
+// batch only touches documents that still have no owner, so concurrent writes are never overwritten
+// and an interrupted run simply continues where it stopped on the next startup.
+@Service
+public class OwnerMigrationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OwnerMigrationService.class);
+    
+    private static final String MIGRATION_ID = "contract-owner-backfill";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ContractCache contractCache;
+    
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+    
+    @Value("${docutrack.migration.legacy-owner:default}")
+    private String legacyOwner;
+    
+    @Value("${docutrack.migration.batch-size:500}")
+    private int batchSize;
+    
+    // Pause between batches so the migration never saturates the database
+    @Value("${docutrack.migration.batch-pause-ms:100}")
+    private long batchPauseMs;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyOwners() {
+        MigrationCheckpoint checkpoint = mongoTemplate.findById(MIGRATION_ID, MigrationCheckpoint.class);
+        if (checkpoint != null && MigrationCheckpoint.COMPLETED.equals(checkpoint.getStatus())) {
+            return;
+        }
+        maintenanceExecutor.execute(this::run);
+    }
+    
+    private void run() {
+        mongoTemplate.upsert(
+            Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+            new Update()
+                .set("status", MigrationCheckpoint.RUNNING)
+                .setOnInsert("migrated", 0L)
+                .setOnInsert("startedAt", LocalDateTime.now()),
+            MigrationCheckpoint.class);
+        
+        long migrated = 0;
+        try {
+            while (true) {
+                // userId: null matches both a missing and an explicit null field
+                Query pending = Query.query(Criteria.where("userId").is(null)).limit(batchSize);
+                pending.fields().include("_id");
+                List<String> ids = mongoTemplate.find(pending, Contract.class).stream()
+                    .map(Contract::getId)
+                    .collect(Collectors.toList());
+                if (ids.isEmpty()) {
+                    break;
+                }
+                
+                long updated = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(ids).and("userId").is(null)),
+                    Update.update("userId", legacyOwner),
+                    Contract.class).getModifiedCount();
+                mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("contractId").in(ids)),
+                    Update.update("userId", legacyOwner),
+                    ContractTerm.class);
+                ids.forEach(id -> contractCache.invalidate(id, legacyOwner));
+                
+                migrated += updated;
+                mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                    new Update().inc("migrated", updated).set("lastBatchAt", LocalDateTime.now()),
+                    MigrationCheckpoint.class);
+                
+                Thread.sleep(batchPauseMs);
+            }
+            
+            // Search terms written from a pre-migration copy of a contract
+            mongoTemplate.updateMulti(
+                Query.query(Criteria.where("userId").is(null)),
+                Update.update("userId", legacyOwner),
+                ContractTerm.class);
+            
+            mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                new Update().set("status", MigrationCheckpoint.COMPLETED).set("completedAt", LocalDateTime.now()),
+                MigrationCheckpoint.class);
+            log.info("Owner migration assigned {} legacy contracts to '{}'", migrated, legacyOwner);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Owner migration stopped after {} contracts, resuming on next startup: {}", migrated, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.docutrack.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Micrometer meters for the contract pipeline. Every stage of an upload or reprocess is timed
+// under docutrack.pipeline.stage, tagged with the pipeline and the stage, so a slow stage shows
+// up directly instead of being hidden in the total request time.
+@Component
+public class PipelineMetrics {
+    
+    public static final String UPLOAD = "upload";
+    public static final String REPROCESS = "reprocess";
+    
+    public static final String DISK_WRITE = "disk_write";
+    public static final String PARSE = "parse";
+    public static final String EXTRACT = "extract";
+    public static final String INDEX = "index";
+    public static final String TEXT_SAVE = "text_save";
+    public static final String SAVE = "save";
+    
+    public static final String FAILED = "failed";
+    public static final String UNCHANGED = "unchanged";
+    
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T run() throws E;
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    public <T, E extends Exception> T time(String pipeline, String stage, Stage<T, E> work) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return work.run();
+        } finally {
+            sample.stop(stageTimer(pipeline, stage));
+        }
+    }
+    
+    public void run(String pipeline, String stage, Runnable work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            work.run();
+        } finally {
+            sample.stop(stageTimer(pipeline, stage));
+        }
+    }
+    
+    public void recordBytesIngested(long bytes) {
+        Counter.builder("docutrack.ingestion.bytes")
+            .baseUnit("bytes")
+            .description("Bytes of uploaded contract files")
+            .register(meterRegistry)
+            .increment(bytes);
+    }
+    
+    // Final extractionStatus of a processed contract, or failed / unchanged
+    public void recordOutcome(String pipeline, String outcome) {
+        Counter.builder("docutrack.extraction.outcomes")
+            .tag("pipeline", pipeline)
+            .tag("outcome", outcome != null ? outcome : "unknown")
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private Timer stageTimer(String pipeline, String stage) {
+        return Timer.builder("docutrack.pipeline.stage")
+            .tag("pipeline", pipeline)
+            .tag("stage", stage)
+            .register(meterRegistry);
+    }
+}
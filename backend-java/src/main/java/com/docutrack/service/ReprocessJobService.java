@@ -0,0 +1,322 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ReprocessJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-side bulk reprocessing. A job walks its selection in (uploadDate, id) order one batch at a
+// time, re-extracts the batch on the shared worker pool with at most the job's concurrency in
+// flight, writes the results back in bulk operations and then records a checkpoint. Jobs
+// interrupted by a restart are picked up again from their last checkpoint once their heartbeat
+// goes stale. The heartbeat is renewed on a timer while a batch runs, so a batch that takes longer
+// than the lease is not taken over, and a batch is only written right after its run has confirmed
+// and extended the lease.
+@Service
+public class ReprocessJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReprocessJobService.class);
+    
+    @Autowired
+    private ContractService contractService;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    @Qualifier("reprocessJobExecutor")
+    private TaskExecutor reprocessJobExecutor;
+    
+    @Autowired
+    @Qualifier("reprocessWorkerExecutor")
+    private AsyncTaskExecutor reprocessWorkerExecutor;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${docutrack.reprocess.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${docutrack.reprocess.max-concurrency:0}")
+    private int maxConcurrency;
+    
+    @Value("${docutrack.reprocess.lease-minutes:5}")
+    private long leaseMinutes;
+    
+    public ReprocessJob createJob(ReprocessJob request) {
+        ReprocessJob job = new ReprocessJob();
+        job.setUserId(request.getUserId());
+        job.setExtractionStatus(request.getExtractionStatus());
+        job.setContractType(request.getContractType());
+        job.setUploadedFrom(request.getUploadedFrom());
+        job.setUploadedTo(request.getUploadedTo());
+        job.setConcurrency(effectiveConcurrency(request.getConcurrency()));
+        job.setTotal(mongoTemplate.count(new Query(selection(job)), Contract.class));
+        job = mongoTemplate.insert(job);
+        
+        claimAndRun(job.getId());
+        return job;
+    }
+    
+    public Optional<ReprocessJob> getJob(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, ReprocessJob.class));
+    }
+    
+    public List<ReprocessJob> getJobs() {
+        return mongoTemplate.find(new Query().with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(100), ReprocessJob.class);
+    }
+    
+    // The running job notices the status change at its next checkpoint
+    public Optional<ReprocessJob> cancelJob(String jobId) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(jobId).and("status").in(ReprocessJob.QUEUED, ReprocessJob.RUNNING)),
+            Update.update("status", ReprocessJob.CANCELLED).set("completedAt", LocalDateTime.now()),
+            FindAndModifyOptions.options().returnNew(true),
+            ReprocessJob.class));
+    }
+    
+    // Also catches jobs whose owner died recently: they are taken over once the lease expires
+    @Scheduled(initialDelayString = "${docutrack.reprocess.resume-check-ms:60000}",
+               fixedDelayString = "${docutrack.reprocess.resume-check-ms:60000}")
+    public void resumeInterruptedJobs() {
+        Query unfinished = Query.query(Criteria.where("status").in(ReprocessJob.QUEUED, ReprocessJob.RUNNING));
+        unfinished.fields().include("_id");
+        for (ReprocessJob job : mongoTemplate.find(unfinished, ReprocessJob.class)) {
+            claimAndRun(job.getId());
+        }
+    }
+    
+    private void claimAndRun(String jobId) {
+        // Only one node may own a job; a lease that has not been renewed in time can be taken over
+        LocalDateTime now = LocalDateTime.now();
+        ReprocessJob job = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(jobId)
+                .and("status").in(ReprocessJob.QUEUED, ReprocessJob.RUNNING)
+                .orOperator(
+                    Criteria.where("heartbeatAt").is(null),
+                    Criteria.where("heartbeatAt").lt(now.minusMinutes(leaseMinutes)))),
+            new Update().set("status", ReprocessJob.RUNNING).set("heartbeatAt", now).set("runStartedAt", now),
+            FindAndModifyOptions.options().returnNew(true),
+            ReprocessJob.class);
+        if (job == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+            Update.update("runStartProcessed", job.getProcessed()), ReprocessJob.class);
+        job.setRunStartProcessed(job.getProcessed());
+        
+        ReprocessJob claimed = job;
+        reprocessJobExecutor.execute(() -> run(claimed));
+    }
+    
+    private void run(ReprocessJob job) {
+        Semaphore inFlight = new Semaphore(effectiveConcurrency(job.getConcurrency()));
+        List<Future<Optional<ContractService.Reprocessed>>> futures = new ArrayList<>();
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        Duration renewEvery = Duration.ofMinutes(leaseMinutes).dividedBy(3);
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(() -> {
+            if (!leaseLost.get() && !renewLease(job)) {
+                leaseLost.set(true);
+            }
+        }, Instant.now().plus(renewEvery), renewEvery);
+        try {
+            while (true) {
+                List<Contract> batch = nextBatch(job);
+                if (batch.isEmpty()) {
+                    finish(job, ReprocessJob.COMPLETED, null);
+                    return;
+                }
+                
+                futures.clear();
+                for (Contract contract : batch) {
+                    inFlight.acquire();
+                    try {
+                        futures.add(reprocessWorkerExecutor.submit(() -> {
+                            try {
+                                return contractService.applyReprocess(contract);
+                            } finally {
+                                inFlight.release();
+                            }
+                        }));
+                    } catch (RuntimeException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                }
+                
+                // Contracts already up to date with the current extractor need no write
+                List<ContractService.Reprocessed> changed = new ArrayList<>();
+                long failures = 0;
+                String lastError = null;
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        futures.get(i).get().ifPresent(changed::add);
+                    } catch (ExecutionException e) {
+                        failures++;
+                        lastError = batch.get(i).getId() + ": " + e.getCause().getMessage();
+                    }
+                }
+                if (leaseLost.get() || !extendLease(job)) {
+                    // Cancelled, or another node owns the job now and redoes this batch
+                    return;
+                }
+                contractService.saveReprocessed(changed);
+                
+                Contract last = batch.get(batch.size() - 1);
+                if (!checkpoint(job, last, batch.size(), failures, lastError)) {
+                    // Cancelled, or the lease was lost to another node
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Reprocess job {} failed", job.getId(), e);
+            finish(job, ReprocessJob.FAILED, e.getMessage());
+        } finally {
+            heartbeat.cancel(false);
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    private List<Contract> nextBatch(ReprocessJob job) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(selection(job));
+        if (job.getCheckpointId() != null) {
+            filters.add(new Criteria().orOperator(
+                Criteria.where("uploadDate").gt(job.getCheckpointUploadDate()),
+                new Criteria().andOperator(
+                    Criteria.where("uploadDate").is(job.getCheckpointUploadDate()),
+                    Criteria.where("_id").gt(job.getCheckpointId()))));
+        }
+        Query query = new Query(new Criteria().andOperator(filters))
+            .with(Sort.by(Sort.Direction.ASC, "uploadDate", "_id"))
+            .limit(batchSize);
+        query.fields().exclude("extractedText");
+        return mongoTemplate.find(query, Contract.class);
+    }
+    
+    // Timer renewal of the lease held by this run; false once the job was cancelled or taken over
+    private boolean renewLease(ReprocessJob job) {
+        try {
+            return extendLease(job);
+        } catch (RuntimeException e) {
+            // A transient failure; the next renewal (or the checkpoint) tries again
+            log.warn("Could not renew the lease of reprocess job {}: {}", job.getId(), e.getMessage());
+            return true;
+        }
+    }
+    
+    // Moves heartbeatAt on only if it still holds the value this run last wrote, which is the run's
+    // lease token. Right after it succeeds no other node can claim the job for a full lease, which is
+    // what lets a batch be written safely.
+    private boolean extendLease(ReprocessJob job) {
+        synchronized (job) {
+            ReprocessJob updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(job.getId())
+                    .and("status").is(ReprocessJob.RUNNING)
+                    .and("heartbeatAt").is(job.getHeartbeatAt())),
+                Update.update("heartbeatAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                ReprocessJob.class);
+            if (updated == null) {
+                return false;
+            }
+            job.setHeartbeatAt(updated.getHeartbeatAt());
+            return true;
+        }
+    }
+    
+    // Serialized with renewLease: both advance heartbeatAt, which fences out a previous owner
+    private boolean checkpoint(ReprocessJob job, Contract last, long processed, long failed, String lastError) {
+        Update update = new Update()
+            .inc("processed", processed)
+            .inc("failed", failed)
+            .set("checkpointUploadDate", last.getUploadDate())
+            .set("checkpointId", last.getId())
+            .set("heartbeatAt", LocalDateTime.now());
+        if (lastError != null) {
+            update.set("lastError", lastError);
+        }
+        synchronized (job) {
+            ReprocessJob updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(job.getId())
+                    .and("status").is(ReprocessJob.RUNNING)
+                    .and("heartbeatAt").is(job.getHeartbeatAt())),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                ReprocessJob.class);
+            if (updated == null) {
+                return false;
+            }
+            job.setCheckpointUploadDate(updated.getCheckpointUploadDate());
+            job.setCheckpointId(updated.getCheckpointId());
+            job.setHeartbeatAt(updated.getHeartbeatAt());
+            return true;
+        }
+    }
+    
+    private void finish(ReprocessJob job, String status, String error) {
+        Update update = Update.update("status", status).set("completedAt", LocalDateTime.now());
+        if (error != null) {
+            update.set("lastError", error);
+        }
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(job.getId()).and("status").is(ReprocessJob.RUNNING)),
+            update, ReprocessJob.class);
+    }
+    
+    private static Criteria selection(ReprocessJob job) {
+        List<Criteria> filters = new ArrayList<>();
+        if (job.getUserId() != null && !job.getUserId().isEmpty()) {
+            filters.add(Criteria.where("userId").is(job.getUserId()));
+        }
+        if (job.getExtractionStatus() != null && !job.getExtractionStatus().isEmpty()) {
+            filters.add(Criteria.where("extractionStatus").is(job.getExtractionStatus()));
+        }
+        if (job.getContractType() != null && !job.getContractType().isEmpty()) {
+            filters.add(Criteria.where("variables.contractType").is(job.getContractType()));
+        }
+        if (job.getUploadedFrom() != null) {
+            filters.add(Criteria.where("uploadDate").gte(job.getUploadedFrom().atStartOfDay()));
+        }
+        if (job.getUploadedTo() != null) {
+            filters.add(Criteria.where("uploadDate").lt(job.getUploadedTo().plusDays(1).atStartOfDay()));
+        }
+        return filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+    }
+    
+    private int effectiveConcurrency(Integer requested) {
+        int limit = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        if (requested == null || requested <= 0) {
+            return limit;
+        }
+        return Math.min(requested, limit);
+    }
+}
@@ -0,0 +1,310 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractTerm;
+import com.docutrack.repository.ContractCriteria;
+import com.docutrack.repository.ContractTermRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Token index over filenames, party names, contract type and body text, kept in the
+// contract_terms collection. Queries are prefix range scans on (userId, term), so their
+// cost follows the number of matching postings rather than the size of the collection.
+@Service
+public class SearchIndexService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+    
+    // Bump when tokenization or scoring changes so existing contracts are re-indexed at startup
+    public static final int INDEX_VERSION = 1;
+    
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int MAX_BODY_TERMS = 5000;
+    private static final double EXACT_MATCH_BOOST = 1.5;
+    
+    private static final String COUNTERS = "counters";
+    private static final String GENERATION_COUNTER = "contract_terms.generation";
+    
+    private static final Map<String, Double> FIELD_WEIGHTS = Map.of(
+        ContractTerm.FIELD_FILENAME, 4.0,
+        ContractTerm.FIELD_PARTY, 3.0,
+        ContractTerm.FIELD_TYPE, 2.0,
+        ContractTerm.FIELD_BODY, 1.0
+    );
+    
+    @Autowired
+    private ContractTermRepository contractTermRepository;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ContractTextStore contractTextStore;
+    
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+    
+    private volatile boolean generationCounterReady;
+    
+    // Postings are upserted under a deterministic id and the previous run's leftovers are removed
+    // afterwards, so a crash or a concurrent index call never leaves duplicate postings behind
+    public void index(Contract contract, String fullText) {
+        List<ContractTerm> terms = terms(contract, fullText);
+        long generation = write(terms);
+        mongoTemplate.remove(Query.query(Criteria.where("contractId").is(contract.getId())
+            .and("generation").not().gte(generation)), ContractTerm.class);
+        contract.setSearchIndexVersion(INDEX_VERSION);
+    }
+    
+    // The postings index would write for the contract, for callers that index many contracts with indexAll
+    public List<ContractTerm> terms(Contract contract, String fullText) {
+        List<ContractTerm> terms = metadataTerms(contract);
+        terms.addAll(bodyTerms(contract, fullText));
+        return terms;
+    }
+    
+    // Same as index for many contracts: their postings go out in one bulk write, and what they
+    // replace is removed with one query
+    public void indexAll(List<Contract> contracts, List<ContractTerm> terms) {
+        if (contracts.isEmpty()) {
+            return;
+        }
+        long generation = write(terms);
+        List<String> ids = contracts.stream().map(Contract::getId).collect(Collectors.toList());
+        mongoTemplate.remove(Query.query(Criteria.where("contractId").in(ids)
+            .and("generation").not().gte(generation)), ContractTerm.class);
+        contracts.forEach(contract -> contract.setSearchIndexVersion(INDEX_VERSION));
+    }
+    
+    // Body terms only change when the file is re-parsed, so edits just refresh the metadata fields
+    public void reindexMetadata(Contract contract) {
+        long generation = write(metadataTerms(contract));
+        mongoTemplate.remove(Query.query(Criteria.where("contractId").is(contract.getId())
+            .and("field").ne(ContractTerm.FIELD_BODY)
+            .and("generation").not().gte(generation)), ContractTerm.class);
+    }
+    
+    public void remove(String contractId) {
+        contractTermRepository.deleteByContractId(contractId);
+    }
+    
+    // Every query token must prefix-match some indexed term; at most maxHits ids come back, best match first
+    public List<String> search(String userId, String queryText, int maxHits) {
+        Set<String> queryTokens = new LinkedHashSet<>(tokenize(queryText));
+        if (queryTokens.isEmpty()) {
+            return searchShortQuery(userId, queryText, maxHits);
+        }
+        
+        Map<String, Double> scores = null;
+        for (String token : queryTokens) {
+            Query query = new Query(new Criteria().andOperator(
+                ContractCriteria.ownedBy(userId),
+                Criteria.where("term").gte(token).lt(token + Character.MAX_VALUE)
+            ));
+            query.fields().include("contractId", "term", "score").exclude("_id");
+            
+            Map<String, Double> tokenScores = new HashMap<>();
+            for (Document posting : mongoTemplate.find(query, Document.class, "contract_terms")) {
+                String contractId = posting.getString("contractId");
+                if (scores != null && !scores.containsKey(contractId)) continue;
+                double score = posting.getDouble("score");
+                if (token.equals(posting.getString("term"))) {
+                    score *= EXACT_MATCH_BOOST;
+                }
+                tokenScores.merge(contractId, score, Double::sum);
+            }
+            
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<String, Double> previous = scores;
+                tokenScores.replaceAll((id, score) -> score + previous.get(id));
+                scores = tokenScores;
+            }
+            if (scores.isEmpty()) break;
+        }
+        
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(maxHits)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+    
+    // Single characters are not indexed, so a query made only of them is matched against the metadata
+    // fields by substring, as the $regex search did. Cheap enough: it only runs for 1-character queries.
+    private List<String> searchShortQuery(String userId, String queryText, int maxHits) {
+        String needle = queryText == null ? "" : queryText.trim();
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(needle), Pattern.CASE_INSENSITIVE);
+        Query query = new Query(new Criteria().andOperator(
+            ContractCriteria.ownedBy(userId),
+            new Criteria().orOperator(
+                Criteria.where("originalFilename").regex(pattern),
+                Criteria.where("variables.contractType").regex(pattern),
+                Criteria.where("variables.partyNames").regex(pattern))
+        )).with(Sort.by(Sort.Direction.DESC, "uploadDate", "_id")).limit(maxHits);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Contract.class).stream()
+            .map(Contract::getId)
+            .collect(Collectors.toList());
+    }
+    
+    // Contracts stored before the index existed (or under an older INDEX_VERSION) are indexed in the background
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexStaleContracts() {
+        maintenanceExecutor.execute(() -> {
+            Query query = new Query(Criteria.where("searchIndexVersion").ne(INDEX_VERSION));
+            int count = 0;
+            try (Stream<Contract> stale = mongoTemplate.stream(query, Contract.class)) {
+                for (Contract contract : (Iterable<Contract>) stale::iterator) {
+                    index(contract, contractTextStore.load(contract.getId()).orElse(contract.getExtractedText()));
+                    mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(contract.getId())),
+                        Update.update("searchIndexVersion", INDEX_VERSION),
+                        Contract.class);
+                    count++;
+                }
+            } catch (Exception e) {
+                log.warn("Search index backfill stopped after {} contracts: {}", count, e.getMessage());
+                return;
+            }
+            if (count > 0) {
+                log.info("Search index backfill indexed {} contracts", count);
+            }
+        });
+    }
+    
+    // Stamps the postings with a new generation and upserts them by id in one unordered bulk write
+    private long write(List<ContractTerm> terms) {
+        long generation = nextGeneration();
+        if (terms.isEmpty()) {
+            return generation;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContractTerm.class);
+        for (ContractTerm term : terms) {
+            bulk.upsert(
+                Query.query(Criteria.where("_id").is(term.getId())),
+                new Update()
+                    .set("contractId", term.getContractId())
+                    .set("userId", term.getUserId())
+                    .set("term", term.getTerm())
+                    .set("field", term.getField())
+                    .set("score", term.getScore())
+                    .set("generation", generation));
+        }
+        bulk.execute();
+        return generation;
+    }
+    
+    // Generations come from one counter document, so they only grow whichever node indexes a
+    // contract and whatever its clock says
+    private long nextGeneration() {
+        if (!generationCounterReady) {
+            seedGenerationCounter();
+        }
+        Document counter = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(GENERATION_COUNTER)),
+            new Update().inc("value", 1L),
+            FindAndModifyOptions.options().upsert(true).returnNew(true),
+            Document.class, COUNTERS);
+        return ((Number) counter.get("value")).longValue();
+    }
+    
+    // Postings written before the counter existed carry clock-based generations, so a new counter
+    // starts above the highest one stored; otherwise their stale postings would never be removed
+    private synchronized void seedGenerationCounter() {
+        if (generationCounterReady) {
+            return;
+        }
+        Query counter = Query.query(Criteria.where("_id").is(GENERATION_COUNTER));
+        if (!mongoTemplate.exists(counter, COUNTERS)) {
+            Query newest = new Query().with(Sort.by(Sort.Direction.DESC, "generation")).limit(1);
+            newest.fields().include("generation");
+            ContractTerm latest = mongoTemplate.findOne(newest, ContractTerm.class);
+            mongoTemplate.upsert(counter, new Update().max("value", latest != null ? latest.getGeneration() : 0L), COUNTERS);
+        }
+        generationCounterReady = true;
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TOKEN_LENGTH && length <= MAX_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    private List<ContractTerm> metadataTerms(Contract contract) {
+        List<ContractTerm> terms = new ArrayList<>();
+        addFieldTerms(terms, contract, ContractTerm.FIELD_FILENAME, tokenize(contract.getOriginalFilename()));
+        if (contract.getVariables() != null) {
+            addFieldTerms(terms, contract, ContractTerm.FIELD_TYPE, tokenize(contract.getVariables().getContractType()));
+            List<String> partyTokens = new ArrayList<>();
+            if (contract.getVariables().getPartyNames() != null) {
+                contract.getVariables().getPartyNames().forEach(name -> partyTokens.addAll(tokenize(name)));
+            }
+            addFieldTerms(terms, contract, ContractTerm.FIELD_PARTY, partyTokens);
+        }
+        return terms;
+    }
+    
+    private List<ContractTerm> bodyTerms(Contract contract, String fullText) {
+        List<ContractTerm> terms = new ArrayList<>();
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(fullText)) {
+            if (frequencies.size() >= MAX_BODY_TERMS && !frequencies.containsKey(token)) continue;
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        double weight = FIELD_WEIGHTS.get(ContractTerm.FIELD_BODY);
+        frequencies.forEach((term, tf) -> terms.add(
+            new ContractTerm(contract.getId(), contract.getUserId(), term, ContractTerm.FIELD_BODY, weight * (1 + Math.log(tf)))));
+        return terms;
+    }
+    
+    private void addFieldTerms(List<ContractTerm> terms, Contract contract, String field, List<String> tokens) {
+        double weight = FIELD_WEIGHTS.get(field);
+        tokens.stream().distinct().forEach(term ->
+            terms.add(new ContractTerm(contract.getId(), contract.getUserId(), term, field, weight)));
+    }
+}
@@ -0,0 +1,302 @@
+package com.docutrack.service;
+
+import com.docutrack.model.Contract;
+import com.docutrack.model.ContractSignature;
+import com.docutrack.repository.ContractCriteria;
+import com.docutrack.repository.ContractSignatureRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Near-duplicate detection for contract revisions. Each contract's body text is reduced to a
+// MinHash signature over word shingles, stored in the contract_signatures side collection so
+// listings and lookups never load it. The signatures are split into bands and kept in an
+// in-memory LSH bucket index, so a lookup only compares against contracts that share at least
+// one band instead of scanning the collection. The index is rebuilt from the stored signatures
+// at startup, and every node then polls for signatures written by the others. Contracts deleted
+// on another node may linger in the buckets, but results are always checked against the
+// stored contracts.
+@Service
+public class SimilarityService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SimilarityService.class);
+    
+    // Bump when shingling or hashing changes so stored signatures are recomputed at startup
+    public static final int SIGNATURE_VERSION = 1;
+    
+    // Lowest similarity the bucket index finds reliably: 32 bands of 4 rows put a pair at 0.5
+    // Jaccard similarity in a shared bucket ~87% of the time, and at 0.6 ~99% of the time
+    public static final double MIN_SIMILARITY = 0.5;
+    
+    private static final int SHINGLE_WORDS = 4;
+    // Bucket threshold (1/BANDS)^(1/ROWS) is ~0.42, just under MIN_SIMILARITY. Changing the
+    // banding only changes the in-memory buckets, not the stored signatures.
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int NUM_HASHES = BANDS * ROWS;
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(NUM_HASHES).toArray();
+    
+    // Refreshes re-read this far back, so signatures stamped by a node with a slightly late clock are not missed
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+    
+    private final Map<String, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    // Null until the startup rebuild has begun loading
+    private volatile LocalDateTime refreshedUpTo;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ContractSignatureRepository contractSignatureRepository;
+    
+    @Autowired
+    private ContractTextStore contractTextStore;
+    
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private TaskExecutor maintenanceExecutor;
+    
+    // Stores the signature of the text and updates the bucket index
+    public void index(String contractId, String fullText) {
+        int[] signature = signature(fullText);
+        ContractSignature stored = new ContractSignature();
+        stored.setId(contractId);
+        stored.setVersion(SIGNATURE_VERSION);
+        stored.setSignature(signature);
+        stored.setUpdatedAt(LocalDateTime.now());
+        contractSignatureRepository.save(stored);
+        put(contractId, signature);
+    }
+    
+    // Same as index for signatures computed beforehand, stored in one unordered bulk write
+    public void indexAll(Map<String, int[]> signaturesById) {
+        if (signaturesById.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ContractSignature.class);
+        signaturesById.forEach((contractId, signature) -> bulk.upsert(
+            Query.query(Criteria.where("_id").is(contractId)),
+            new Update()
+                .set("version", SIGNATURE_VERSION)
+                .set("signature", signature)
+                .set("updatedAt", now)));
+        bulk.execute();
+        signaturesById.forEach(this::put);
+    }
+    
+    public void remove(String contractId) {
+        contractSignatureRepository.deleteById(contractId);
+        unindex(contractId);
+    }
+    
+    private void unindex(String contractId) {
+        int[] previous = signatures.remove(contractId);
+        if (previous != null) {
+            for (int band = 0; band < BANDS; band++) {
+                Set<String> bucket = buckets.get(bandKey(previous, band));
+                if (bucket != null) {
+                    bucket.remove(contractId);
+                }
+            }
+        }
+    }
+    
+    // Contracts of the same owner whose estimated Jaccard similarity to the given one is at least
+    // minSimilarity, most similar first. Empty when the contract does not exist or belongs to someone else.
+    public Optional<List<Map<String, Object>>> findSimilar(String contractId, String userId, double minSimilarity, int limit) {
+        Query owned = new Query(new Criteria().andOperator(
+            Criteria.where("_id").is(contractId),
+            ContractCriteria.ownedBy(userId)
+        ));
+        owned.fields().include("_id");
+        if (!mongoTemplate.exists(owned, Contract.class)) {
+            return Optional.empty();
+        }
+        
+        int[] signature = signatures.get(contractId);
+        if (signature == null) {
+            return Optional.of(List.of());
+        }
+        
+        Map<String, Double> scores = new HashMap<>();
+        for (int band = 0; band < BANDS; band++) {
+            Set<String> bucket = buckets.get(bandKey(signature, band));
+            if (bucket == null) continue;
+            for (String candidate : bucket) {
+                if (candidate.equals(contractId) || scores.containsKey(candidate)) continue;
+                int[] other = signatures.get(candidate);
+                if (other != null) {
+                    scores.put(candidate, estimateSimilarity(signature, other));
+                }
+            }
+        }
+        scores.values().removeIf(score -> score < minSimilarity);
+        if (scores.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        
+        // Ownership is checked against the stored contracts, not the in-memory index
+        Query query = new Query(new Criteria().andOperator(
+            Criteria.where("_id").in(scores.keySet()),
+            ContractCriteria.ownedBy(userId)
+        ));
+        query.fields().include("_id", "originalFilename", "uploadDate", "variables.contractType");
+        
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Contract contract : mongoTemplate.find(query, Contract.class)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("contract_id", contract.getId());
+            item.put("filename", contract.getOriginalFilename());
+            item.put("upload_date", contract.getUploadDate());
+            item.put("contract_type", contract.getVariables() != null ? contract.getVariables().getContractType() : null);
+            item.put("similarity", Math.round(scores.get(contract.getId()) * 1000) / 1000.0);
+            result.add(item);
+        }
+        result.sort((a, b) -> Double.compare((Double) b.get("similarity"), (Double) a.get("similarity")));
+        return Optional.of(result.size() > limit ? result.subList(0, limit) : result);
+    }
+    
+    // Loads the stored signatures into the bucket index, then signs contracts that have none
+    // (or an older SIGNATURE_VERSION) from their stored text
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        maintenanceExecutor.execute(() -> {
+            refreshedUpTo = LocalDateTime.now();
+            Set<String> signed = new HashSet<>();
+            Query current = new Query(Criteria.where("version").is(SIGNATURE_VERSION));
+            try (Stream<ContractSignature> stored = mongoTemplate.stream(current, ContractSignature.class)) {
+                stored.forEach(signature -> {
+                    signed.add(signature.getId());
+                    put(signature.getId(), signature.getSignature());
+                });
+            }
+            log.info("Similarity index loaded {} signatures", signatures.size());
+            
+            Query all = new Query();
+            all.fields().include("_id", "extractedText");
+            int count = 0;
+            try (Stream<Contract> contracts = mongoTemplate.stream(all, Contract.class)) {
+                for (Contract contract : (Iterable<Contract>) contracts::iterator) {
+                    if (signed.contains(contract.getId())) continue;
+                    index(contract.getId(), contractTextStore.load(contract.getId()).orElse(contract.getExtractedText()));
+                    count++;
+                }
+            } catch (Exception e) {
+                log.warn("Similarity backfill stopped after {} contracts: {}", count, e.getMessage());
+                return;
+            }
+            if (count > 0) {
+                log.info("Similarity backfill signed {} contracts", count);
+            }
+            
+            // Earlier releases kept the signature inline on the contract document
+            mongoTemplate.updateMulti(
+                Query.query(Criteria.where("minHashSignature").exists(true)),
+                new Update().unset("minHashSignature").unset("minHashVersion"),
+                Contract.class);
+        });
+    }
+    
+    // Loads signatures stored since the last refresh, including those written by other nodes
+    @Scheduled(fixedDelayString = "${docutrack.similarity.refresh-ms:30000}")
+    public void refreshIndex() {
+        LocalDateTime from = refreshedUpTo;
+        if (from == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Query changed = new Query(Criteria.where("updatedAt").gte(from.minus(CLOCK_SKEW)).and("version").is(SIGNATURE_VERSION));
+        try (Stream<ContractSignature> stored = mongoTemplate.stream(changed, ContractSignature.class)) {
+            stored.forEach(signature -> put(signature.getId(), signature.getSignature()));
+        }
+        refreshedUpTo = now;
+    }
+    
+    // Minimum of each seeded hash over the word shingles of the text; null when there is no text
+    public static int[] signature(String text) {
+        List<String> tokens = SearchIndexService.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, tokens.size() - SHINGLE_WORDS + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int i = start; i < Math.min(start + SHINGLE_WORDS, tokens.size()); i++) {
+                shingle = shingle * 31 + tokens.get(i).hashCode();
+            }
+            shingle = mix(shingle);
+            for (int h = 0; h < NUM_HASHES; h++) {
+                int value = (int) (mix(shingle ^ SEEDS[h]) >>> 33);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    // Fraction of agreeing positions, an unbiased estimate of the Jaccard similarity of the shingle sets
+    public static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+    
+    private void put(String contractId, int[] signature) {
+        unindex(contractId);
+        if (signature == null || signature.length != NUM_HASHES) {
+            return;
+        }
+        signatures.put(contractId, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> ConcurrentHashMap.newKeySet()).add(contractId);
+        }
+    }
+    
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return mix(key);
+    }
+    
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
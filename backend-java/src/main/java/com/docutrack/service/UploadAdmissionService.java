@@ -0,0 +1,159 @@
+package com.docutrack.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Admission control in front of the ingestion pipeline. An upload request is admitted only while
+// the bytes of all admitted-but-unfinished files stay within max-inflight-bytes, and no single user
+// holds more than user-share of that budget. Requests over budget wait up to max-wait in a bounded
+// queue, then are rejected with a retry hint instead of piling more work onto the node. Parsing,
+// the CPU and heap heavy stage, additionally runs in a fixed number of parse slots.
+@Component
+public class UploadAdmissionService {
+    
+    public static final String REASON_QUEUE_FULL = "queue_full";
+    public static final String REASON_BUDGET = "budget";
+    public static final String REASON_USER_SHARE = "user_share";
+    public static final String REASON_WORKERS_BUSY = "workers_busy";
+    
+    private final long maxInflightBytes;
+    private final long maxUserBytes;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final Semaphore parseSlots;
+    private final MeterRegistry meterRegistry;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<String, Long> userInflight = new HashMap<>();
+    private long inflightBytes;
+    private int queued;
+    
+    // Bytes of one admitted request, returned file by file as each file finishes
+    public final class Ticket {
+        private final String userId;
+        private long remaining;
+        
+        private Ticket(String userId, long bytes) {
+            this.userId = userId;
+            this.remaining = bytes;
+        }
+        
+        public void release(long bytes) {
+            lock.lock();
+            try {
+                long returned = Math.min(bytes, remaining);
+                remaining -= returned;
+                inflightBytes -= returned;
+                userInflight.computeIfPresent(userId, (user, held) -> held - returned > 0 ? held - returned : null);
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    public UploadAdmissionService(@Value("${docutrack.admission.max-inflight-bytes:512MB}") DataSize maxInflight,
+                                  @Value("${docutrack.admission.user-share:0.5}") double userShare,
+                                  @Value("${docutrack.admission.parse-slots:0}") int parseSlotCount,
+                                  @Value("${docutrack.admission.max-queued:50}") int maxQueued,
+                                  @Value("${docutrack.admission.max-wait:2s}") Duration maxWait,
+                                  @Value("${docutrack.admission.retry-after:5s}") Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.maxInflightBytes = maxInflight.toBytes();
+        this.maxUserBytes = (long) (maxInflightBytes * userShare);
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        // 0 means one parse slot per available core
+        this.parseSlots = new Semaphore(parseSlotCount > 0 ? parseSlotCount : Runtime.getRuntime().availableProcessors(), true);
+        this.meterRegistry = meterRegistry;
+        
+        Gauge.builder("docutrack.admission.queue.depth", this, admission -> admission.queued)
+            .description("Upload requests waiting for ingestion budget")
+            .register(meterRegistry);
+        Gauge.builder("docutrack.admission.parse.waiting", parseSlots, Semaphore::getQueueLength)
+            .description("Admitted files waiting for a parse slot")
+            .register(meterRegistry);
+        Gauge.builder("docutrack.admission.inflight", this, admission -> admission.inflightBytes)
+            .baseUnit("bytes")
+            .description("Bytes of admitted uploads not yet processed")
+            .register(meterRegistry);
+    }
+    
+    // Blocks up to max-wait for room in the budget; throws AdmissionRejectedException otherwise
+    public Ticket admit(String userId, long bytes) {
+        lock.lock();
+        try {
+            if (!fits(userId, bytes)) {
+                if (queued >= maxQueued) {
+                    throw reject(REASON_QUEUE_FULL);
+                }
+                queued++;
+                try {
+                    long remainingNanos = maxWait.toNanos();
+                    while (!fits(userId, bytes)) {
+                        if (remainingNanos <= 0) {
+                            throw reject(inflightBytes + bytes > maxInflightBytes ? REASON_BUDGET : REASON_USER_SHARE);
+                        }
+                        remainingNanos = released.awaitNanos(remainingNanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject(REASON_BUDGET);
+                } finally {
+                    queued--;
+                }
+            }
+            inflightBytes += bytes;
+            userInflight.merge(userId, bytes, Long::sum);
+            return new Ticket(userId, bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Parsing and extraction hold a slot, so their combined heap and CPU use stays bounded
+    public void acquireParseSlot() throws InterruptedException {
+        parseSlots.acquire();
+    }
+    
+    public void releaseParseSlot() {
+        parseSlots.release();
+    }
+    
+    // For when the ingestion workers' queue has no room for a request's files
+    public AdmissionRejectedException workersBusy() {
+        return reject(REASON_WORKERS_BUSY);
+    }
+    
+    // An idle node or idle user always gets one request through, however large, so nothing starves
+    private boolean fits(String userId, long bytes) {
+        long held = userInflight.getOrDefault(userId, 0L);
+        boolean globalRoom = inflightBytes == 0 || inflightBytes + bytes <= maxInflightBytes;
+        boolean userRoom = held == 0 || held + bytes <= maxUserBytes;
+        return globalRoom && userRoom;
+    }
+    
+    private AdmissionRejectedException reject(String reason) {
+        Counter.builder("docutrack.admission.rejections")
+            .tag("reason", reason)
+            .description("Upload requests answered with 429")
+            .register(meterRegistry)
+            .increment();
+        return new AdmissionRejectedException(reason, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,165 @@
+package com.docutrack.service;
+
+import com.docutrack.config.ExtractionProperties;
+import com.docutrack.config.ExtractionProperties.ContractTypeRule;
+import com.docutrack.config.ExtractionProperties.FieldRule;
+import com.docutrack.model.ContractVariables;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Rule-driven extraction of contract variables. Everything is compiled once from
+// ExtractionProperties: contract-type keywords into a single automaton, and the
+// party/amount/date/signature patterns into one alternation that is swept over the text once.
+// The sweep resumes after each match, so matches of different field rules cannot overlap, and
+// the rules' groups are renumbered, so numbered backreferences are rejected (named ones still work).
+@Component
+public class VariableExtractor {
+    
+    private static final String UNKNOWN_TYPE = "Unknown";
+    // Bump whenever extract() changes behaviour for the same rules
+    private static final int ENGINE_VERSION = 3;
+    
+    private final List<String> contractTypeNames = new ArrayList<>();
+    private final KeywordAutomaton contractTypeAutomaton;
+    
+    private final String fingerprint;
+    private final DateNormalizer dateNormalizer;
+    
+    private final Pattern fieldPattern;
+    private final int partyGroup;
+    private final int amountGroup;
+    private final int dateGroup;
+    private final int signatureGroup;
+    
+    public VariableExtractor(ExtractionProperties properties) {
+        List<String> keywords = new ArrayList<>();
+        List<Integer> ruleIndexes = new ArrayList<>();
+        for (ContractTypeRule rule : properties.getContractTypes()) {
+            for (String keyword : rule.getKeywords()) {
+                keywords.add(keyword);
+                ruleIndexes.add(contractTypeNames.size());
+            }
+            contractTypeNames.add(rule.getName());
+        }
+        contractTypeAutomaton = new KeywordAutomaton(keywords, ruleIndexes);
+        
+        // Each field rule becomes one outer group; its own groups follow it in the combined pattern
+        StringBuilder combined = new StringBuilder();
+        int group = 1;
+        partyGroup = group;
+        group = appendAlternative(combined, properties.getParty(), group);
+        amountGroup = group;
+        group = appendAlternative(combined, properties.getAmount(), group);
+        dateGroup = group;
+        group = appendAlternative(combined, properties.getDate(), group);
+        signatureGroup = group;
+        appendAlternative(combined, properties.getSignature(), group);
+        fieldPattern = Pattern.compile(combined.toString());
+        
+        StringBuilder rules = new StringBuilder("engine=" + ENGINE_VERSION);
+        for (ContractTypeRule rule : properties.getContractTypes()) {
+            rules.append('\n').append(rule.getName()).append('=').append(rule.getKeywords());
+        }
+        dateNormalizer = new DateNormalizer(properties.getNumericDateOrder());
+        rules.append("\ndates=").append(properties.getNumericDateOrder());
+        fingerprint = rules.append('\n').append(combined).toString();
+    }
+    
+    // Identifies the rule set, so cached results from other rules are not reused
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public ContractVariables extract(String text) {
+        ContractVariables variables = new ContractVariables();
+        
+        int rule = contractTypeAutomaton.firstMatchingRule(text);
+        variables.setContractType(rule == KeywordAutomaton.NO_MATCH ? UNKNOWN_TYPE : contractTypeNames.get(rule));
+        
+        List<String> partyNames = new ArrayList<>();
+        List<String> dates = new ArrayList<>();
+        List<String> signatures = new ArrayList<>();
+        String amount = null;
+        
+        Matcher matcher = fieldPattern.matcher(text);
+        while (matcher.find()) {
+            if (matcher.start(partyGroup) >= 0) {
+                partyNames.add(matcher.group(partyGroup + 1).trim());
+                partyNames.add(matcher.group(partyGroup + 2).trim());
+            } else if (matcher.start(amountGroup) >= 0) {
+                if (amount == null) {
+                    amount = matcher.group(amountGroup);
+                }
+            } else if (matcher.start(dateGroup) >= 0) {
+                dates.add(matcher.group(dateGroup));
+            } else if (matcher.start(signatureGroup) >= 0) {
+                signatures.add(matcher.group(signatureGroup + 1).trim());
+            }
+        }
+        
+        variables.setPartyNames(partyNames);
+        variables.setAmount(amount);
+        if (!dates.isEmpty()) {
+            variables.setDate(dates.get(0));
+            if (dates.size() > 1) {
+                variables.setExpirationDate(dates.get(1));
+            }
+        }
+        normalizeDates(variables);
+        variables.setSignatures(signatures);
+        
+        // Other fields
+        Map<String, Object> otherFields = new HashMap<>();
+        otherFields.put("text_length", text.length());
+        otherFields.put("extraction_method", "enhanced_java_ai");
+        variables.setOtherFields(otherFields);
+        
+        return variables;
+    }
+    
+    // Typed copies of the free-form date strings, used for indexing and range queries
+    public void normalizeDates(ContractVariables variables) {
+        variables.setEffectiveOn(dateNormalizer.normalize(variables.getDate()));
+        variables.setExpiresOn(dateNormalizer.normalize(variables.getExpirationDate()));
+    }
+    
+    private static int appendAlternative(StringBuilder combined, FieldRule rule, int group) {
+        if (hasNumberedBackreference(rule.getPattern())) {
+            throw new IllegalArgumentException("Field pattern " + rule.getPattern()
+                + " uses a numbered backreference; use a named group and \\k<name> instead");
+        }
+        if (combined.length() > 0) {
+            combined.append('|');
+        }
+        combined.append('(').append(rule.isCaseInsensitive() ? "(?i:" : "(?:").append(rule.getPattern()).append("))");
+        return group + 1 + Pattern.compile(rule.getPattern()).matcher("").groupCount();
+    }
+    
+    // \1 to \9 outside \Q...\E quoting; an escaped backslash followed by a digit is a literal
+    private static boolean hasNumberedBackreference(String pattern) {
+        for (int i = 0; i < pattern.length() - 1; i++) {
+            if (pattern.charAt(i) != '\\') {
+                continue;
+            }
+            char next = pattern.charAt(i + 1);
+            if (next >= '1' && next <= '9') {
+                return true;
+            }
+            if (next == 'Q') {
+                int end = pattern.indexOf("\\E", i + 2);
+                if (end < 0) {
+                    return false;
+                }
+                i = end;
+            }
+            i++;
+        }
+        return false;
+    }
+}
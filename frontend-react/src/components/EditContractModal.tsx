@@ -1,12 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { X, Save } from 'lucide-react';
-import { Contract } from '../types';
+import { ContractSummary } from '../types';
 
 interface EditContractModalProps {
   isOpen: boolean;
-  contract: Contract | null;
+  contract: ContractSummary | null;
   onClose: () => void;
-  onSave: (contractId: string, updatedContract: Contract) => void;
+  onSave: (contractId: string, updatedContract: ContractSummary) => void;
 }
 
 const EditContractModal: React.FC<EditContractModalProps> = ({
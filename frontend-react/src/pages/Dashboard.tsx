@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Upload, FileText, Search, Download, Trash2, CheckCircle, AlertCircle, Edit2, X, RefreshCw, BarChart3, Users, Calendar, DollarSign, Loader2 } from 'lucide-react';
-import { User, Contract, Analytics, ContractType } from '../types';
+import { User, ContractSummary, Analytics, ContractType, ContractFacets } from '../types';
 import { contractAPI } from '../services/api';
 import Toast from '../components/Toast';
 import ConfirmDialog from '../components/ConfirmDialog';
@@ -11,7 +11,7 @@ interface DashboardProps {
 }
 
 const Dashboard: React.FC<DashboardProps> = ({ user }) => {
-  const [contracts, setContracts] = useState<Contract[]>([]);
+  const [contracts, setContracts] = useState<ContractSummary[]>([]);
   const [analytics, setAnalytics] = useState<Analytics>({
     total_contracts: 0,
     auto_extracted: 0,
@@ -20,6 +20,9 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
     total_size: 0
   });
   const [contractTypes, setContractTypes] = useState<ContractType[]>([]);
+  const [facets, setFacets] = useState<ContractFacets>({ contractType: {}, extractionStatus: {} });
+  const [nextCursor, setNextCursor] = useState<string | undefined>(undefined);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(false);
   const [uploading, setUploading] = useState(false);
   const [selectedFiles, setSelectedFiles] = useState<FileList | null>(null);
@@ -28,13 +31,13 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
   const [filterType, setFilterType] = useState('');
   const [currentView, setCurrentView] = useState<'dashboard' | 'analytics'>('dashboard');
   const [editingContract, setEditingContract] = useState<string | null>(null);
-  const [selectedContract, setSelectedContract] = useState<Contract | null>(null);
+  const [selectedContract, setSelectedContract] = useState<ContractSummary | null>(null);
   const [showContractModal, setShowContractModal] = useState(false);
   const [actionLoading, setActionLoading] = useState<{[key: string]: string}>({});
   const [toast, setToast] = useState<{message: string; type: 'success' | 'error'} | null>(null);
   const [confirmDialog, setConfirmDialog] = useState<{isOpen: boolean; contractId: string | null}>({isOpen: false, contractId: null});
   const [showEditModal, setShowEditModal] = useState(false);
-  const [editingContractData, setEditingContractData] = useState<Contract | null>(null);
+  const [editingContractData, setEditingContractData] = useState<ContractSummary | null>(null);
   const [searchSuggestions, setSearchSuggestions] = useState<string[]>([]);
   const [showSuggestions, setShowSuggestions] = useState(false);
 
@@ -89,16 +92,19 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
     }
   };
 
+  // One request returns the first page and the type/status counts for the filter dropdowns
   const fetchContracts = async () => {
     try {
       setLoading(true);
-      const data = await contractAPI.getContracts({
+      const page = await contractAPI.getContractPage({
         userId: user.id,
         search: searchTerm || undefined,
         extractionStatus: filterStatus || undefined,
         contractType: filterType || undefined,
       });
-      setContracts(data);
+      setContracts(page.items);
+      setFacets(page.facets);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching contracts:', error);
     } finally {
@@ -106,14 +112,33 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
     }
   };
 
+  const fetchMoreContracts = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await contractAPI.getContractPage({
+        userId: user.id,
+        search: searchTerm || undefined,
+        extractionStatus: filterStatus || undefined,
+        contractType: filterType || undefined,
+        cursor: nextCursor,
+      });
+      setContracts(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching contracts:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const fetchAnalytics = async () => {
     try {
-      const [analyticsData, typesData] = await Promise.all([
-        contractAPI.getAnalytics(user.id),
-        contractAPI.getContractTypes(user.id)
-      ]);
-      setAnalytics(analyticsData);
-      setContractTypes(typesData);
+      setAnalytics(await contractAPI.getAnalytics(user.id));
+      // The type distribution is only shown on the analytics tab
+      if (currentView === 'analytics') {
+        setContractTypes(await contractAPI.getContractTypes(user.id));
+      }
     } catch (error) {
       console.error('Error fetching analytics:', error);
     }
@@ -127,11 +152,15 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
 
     try {
       setUploading(true);
-      await contractAPI.uploadContracts(selectedFiles, user.id);
+      const job = await contractAPI.uploadContracts(selectedFiles, user.id);
       setSelectedFiles(null);
       fetchContracts();
       fetchAnalytics();
-      setToast({message: 'Upload successful!', type: 'success'});
+      if (job.failed > 0) {
+        setToast({message: `${job.completed} uploaded, ${job.failed} failed`, type: 'error'});
+      } else {
+        setToast({message: 'Upload successful!', type: 'success'});
+      }
     } catch (error) {
       console.error('Error uploading:', error);
       setToast({message: 'Upload failed', type: 'error'});
@@ -188,7 +217,7 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
     }
   };
 
-  const handleShowContractDetails = (contract: Contract) => {
+  const handleShowContractDetails = (contract: ContractSummary) => {
     setSelectedContract(contract);
     setShowContractModal(true);
   };
@@ -219,7 +248,7 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
     }
   };
 
-  const handleEditSave = async (contractId: string, updatedContract: Contract) => {
+  const handleEditSave = async (contractId: string, updatedContract: ContractSummary) => {
     try {
       await contractAPI.updateContract(contractId, updatedContract);
       fetchContracts();
@@ -276,9 +305,13 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
 
   useEffect(() => {
     fetchContracts();
-    fetchAnalytics();
   }, [user, searchTerm, filterStatus, filterType]);
 
+  // Summary cards do not depend on the filters
+  useEffect(() => {
+    fetchAnalytics();
+  }, [user, currentView]);
+
   return (
     <div className="container mx-auto px-6 py-8">
       {/* Navigation Tabs */}
@@ -493,9 +526,9 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
               className="w-full px-3 py-2 border border-slate-300 rounded-lg focus:outline-none focus:ring-2 focus:ring-slate-500"
             >
               <option value="">All Status</option>
-              <option value="auto_extracted">Auto Extracted</option>
-              <option value="manual_required">Manual Required</option>
-              <option value="manually_edited">Manually Edited</option>
+              <option value="auto_extracted">Auto Extracted ({facets.extractionStatus['auto_extracted'] || 0})</option>
+              <option value="manual_required">Manual Required ({facets.extractionStatus['manual_required'] || 0})</option>
+              <option value="manually_edited">Manually Edited ({facets.extractionStatus['manually_edited'] || 0})</option>
             </select>
           </div>
           
@@ -506,9 +539,9 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
               className="w-full px-3 py-2 border border-slate-300 rounded-lg focus:outline-none focus:ring-2 focus:ring-slate-500"
             >
               <option value="">All Types</option>
-              {contractTypes.map((type) => (
-                <option key={type.contract_type} value={type.contract_type}>
-                  {type.contract_type} ({type.count})
+              {Object.entries(facets.contractType).map(([type, count]) => (
+                <option key={type} value={type}>
+                  {type} ({count})
                 </option>
               ))}
             </select>
@@ -648,6 +681,18 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
                   ))}
                 </tbody>
               </table>
+              {nextCursor && (
+                <div className="flex justify-center pt-4">
+                  <button
+                    onClick={fetchMoreContracts}
+                    disabled={loadingMore}
+                    className="flex items-center gap-2 px-4 py-2 border border-slate-300 rounded-lg hover:bg-slate-100 disabled:opacity-50"
+                  >
+                    {loadingMore && <Loader2 className="w-4 h-4 animate-spin" />}
+                    Load more
+                  </button>
+                </div>
+              )}
             </div>
           )}
         </div>
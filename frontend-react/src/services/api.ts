@@ -1,7 +1,8 @@
 import axios from 'axios';
-import { Contract, Analytics, ContractType } from '../types';
+import { Contract, ContractSummary, Analytics, ContractType, ContractPage, IngestionJob } from '../types';
 
 const API_BASE_URL = 'http://localhost:8080/api';
+const MAX_UPLOAD_ATTEMPTS = 5;
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -11,30 +12,60 @@ const api = axios.create({
 });
 
 export const contractAPI = {
-  // Get all contracts
-  getContracts: async (params: {
+  // One page of contracts plus type and status counts for the filter sidebar
+  getContractPage: async (params: {
     userId?: string;
     search?: string;
     contractType?: string;
     extractionStatus?: string;
-  }): Promise<Contract[]> => {
-    const response = await api.get('/contracts', { params });
+    uploadedFrom?: string;
+    uploadedTo?: string;
+    party?: string;
+    cursor?: string;
+    limit?: number;
+  }): Promise<ContractPage> => {
+    const response = await api.get('/contracts/page', { params });
     return response.data;
   },
 
-  // Upload contracts
-  uploadContracts: async (files: FileList, userId: string): Promise<Contract[]> => {
+  // Upload contracts: the backend accepts the batch as a job, so poll until every file is processed
+  uploadContracts: async (files: FileList, userId: string): Promise<IngestionJob> => {
     const formData = new FormData();
     Array.from(files).forEach(file => {
       formData.append('files', file);
     });
     formData.append('userId', userId);
 
-    const response = await api.post('/contracts/upload', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data',
-      },
-    });
+    // The server answers 429 with Retry-After while its ingestion budget is used up
+    let response;
+    for (let attempt = 1; ; attempt++) {
+      try {
+        response = await api.post('/contracts/upload', formData, {
+          headers: {
+            'Content-Type': 'multipart/form-data',
+          },
+        });
+        break;
+      } catch (error) {
+        if (!axios.isAxiosError(error) || error.response?.status !== 429 || attempt >= MAX_UPLOAD_ATTEMPTS) {
+          throw error;
+        }
+        const retryAfter = Number(error.response.headers['retry-after']) || 5;
+        await new Promise(resolve => setTimeout(resolve, retryAfter * 1000));
+      }
+    }
+
+    let job: IngestionJob = response.data;
+    while (!job.completedAt) {
+      await new Promise(resolve => setTimeout(resolve, 1000));
+      job = await contractAPI.getUploadJob(job.id, userId);
+    }
+    return job;
+  },
+
+  // Get upload job progress
+  getUploadJob: async (jobId: string, userId: string): Promise<IngestionJob> => {
+    const response = await api.get(`/contracts/upload/jobs/${jobId}`, { params: { userId } });
     return response.data;
   },
 
@@ -81,8 +112,8 @@ export const contractAPI = {
     return response.data;
   },
 
-  // Update contract
-  updateContract: async (contractId: string, contract: Contract): Promise<Contract> => {
+  // Update contract (only the variables are read, so a list item will do)
+  updateContract: async (contractId: string, contract: ContractSummary): Promise<Contract> => {
     const response = await api.put(`/contracts/${contractId}`, contract);
     return response.data;
   },
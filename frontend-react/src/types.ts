@@ -14,19 +14,34 @@ export interface ContractVariables {
   otherFields?: Record<string, any>;
 }
 
-export interface Contract {
+// List view of a contract, as /contracts/page returns it: no stored text or storage path
+export interface ContractSummary {
   id: string;
   filename: string;
   originalFilename: string;
-  filePath: string;
   fileSize: number;
   uploadDate: string;
   variables: ContractVariables;
   extractionStatus: string;
-  extractedText?: string;
   userId: string;
 }
 
+export interface Contract extends ContractSummary {
+  filePath: string;
+  extractedText?: string;
+}
+
+export interface ContractFacets {
+  contractType: Record<string, number>;
+  extractionStatus: Record<string, number>;
+}
+
+export interface ContractPage {
+  items: ContractSummary[];
+  nextCursor?: string;
+  facets: ContractFacets;
+}
+
 export interface Analytics {
   total_contracts: number;
   auto_extracted: number;
@@ -39,3 +54,23 @@ export interface ContractType {
   contract_type: string;
   count: number;
 }
+
+export interface IngestionFileStatus {
+  originalFilename: string;
+  fileSize: number;
+  status: 'queued' | 'parsing' | 'extracting' | 'saving' | 'completed' | 'failed';
+  contractId?: string;
+  error?: string;
+}
+
+export interface IngestionJob {
+  id: string;
+  userId: string;
+  createdAt: string;
+  completedAt?: string;
+  files: IngestionFileStatus[];
+  total: number;
+  completed: number;
+  failed: number;
+  progress: number;
+}